@@ -0,0 +1,84 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import javax.script.ScriptEngineManager;
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+// warm: engines created and scripts compiled already,
+// cold: the very first calculation on a freshly created engine
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CalculatorBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Operands {
+        @Param({ "ADD", "SUBTRACT", "MULTIPLY", "DIVIDE", "POWER", "SQUARE", "SQUARE_ROOT" })
+        public CalculationRequest.Operator operator;
+
+        @Param({ "script", "native" })
+        public String engine;
+
+        public final String[] operands = { "12.5", "-3" };
+    }
+
+    @State(Scope.Benchmark)
+    public static class WarmCalculator {
+        Calculator calculator;
+
+        @Setup(Level.Trial)
+        public void setUp(Operands operands) throws Calculator.Exc {
+            calculator = calculator(operands.engine);
+            calculator.calculate(operands.operator, operands.operands);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ColdCalculator {
+        Calculator calculator;
+
+        @Setup(Level.Iteration)
+        public void setUp(Operands operands) {
+            calculator = calculator(operands.engine);
+        }
+    }
+
+    @Benchmark
+    public Number warm(Operands operands, WarmCalculator warmCalculator) throws Calculator.Exc {
+        return warmCalculator.calculator.calculate(operands.operator, operands.operands);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public Number cold(Operands operands, ColdCalculator coldCalculator) throws Calculator.Exc {
+        return coldCalculator.calculator.calculate(operands.operator, operands.operands);
+    }
+
+    static Calculator calculator(String engine) {
+        BuggyCalculator buggyCalculator = new BuggyCalculator();
+        ScriptEnginePool scriptEnginePool = new ScriptEnginePool(
+                () -> new ScriptEngineManager().getEngineByName("JavaScript"),
+                1,
+                1000,
+                new SimpleMeterRegistry());
+        Field scriptEnginePoolField = ReflectionUtils.findField(BuggyCalculator.class, "scriptEnginePool");
+        ReflectionUtils.makeAccessible(scriptEnginePoolField);
+        ReflectionUtils.setField(scriptEnginePoolField, buggyCalculator, scriptEnginePool);
+        Field evaluationExecutorField = ReflectionUtils.findField(BuggyCalculator.class, "evaluationExecutor");
+        ReflectionUtils.makeAccessible(evaluationExecutorField);
+        ReflectionUtils.setField(
+                evaluationExecutorField,
+                buggyCalculator,
+                new EvaluationExecutor(1, 10, 10000, true, new SimpleMeterRegistry()));
+        return "native".equals(engine) ? new NativeCalculator(buggyCalculator) : buggyCalculator;
+    }
+}
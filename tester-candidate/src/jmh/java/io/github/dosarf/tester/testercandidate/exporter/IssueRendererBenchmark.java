@@ -0,0 +1,69 @@
+package io.github.dosarf.tester.testercandidate.exporter;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.HtmlRenderer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IssueRendererBenchmark {
+
+    private static final String MARKDOWN_BLOCK = "## Steps to reproduce\n" +
+            "1. open the *calculator*\n" +
+            "2. press `2`, `+`, `3` and **=**\n" +
+            "\n" +
+            "> expected 5, got 6, see [the spec](http://localhost:8080/calculator/spa)\n" +
+            "\n" +
+            "```\n" +
+            "POST /calculator/ {\"operator\":\"ADD\",\"operands\":[\"2\",\"3\"]}\n" +
+            "```\n" +
+            "\n";
+
+    // the description column holds at most 4096 characters
+    @Param({ "64", "512", "1024", "4096" })
+    public int descriptionLength;
+
+    private IssueRenderer issueRenderer;
+    private Issue issue;
+
+    @Setup
+    public void setUp() {
+        issueRenderer = new IssueRenderer();
+        setField("markdownParser", Parser.builder().build());
+        setField("markdownHtmlRenderer", HtmlRenderer.builder().build());
+
+        StringBuilder description = new StringBuilder();
+        while (description.length() < descriptionLength) {
+            description.append(MARKDOWN_BLOCK);
+        }
+        description.setLength(descriptionLength);
+
+        issue = new Issue(
+                1L,
+                "summary",
+                Issue.Type.DEFECT,
+                Issue.Priority.HIGH,
+                description.toString(),
+                null);
+    }
+
+    @Benchmark
+    public RenderedIssue render() {
+        return issueRenderer.render(issue);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(IssueRenderer.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, issueRenderer, value);
+    }
+}
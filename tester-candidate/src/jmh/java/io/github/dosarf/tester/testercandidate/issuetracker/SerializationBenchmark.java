@@ -0,0 +1,69 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.calculator.CalculationRequest;
+import io.github.dosarf.tester.testercandidate.calculator.CalculationResponse;
+import io.github.dosarf.tester.testercandidate.user.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// what the listing endpoints return, serialized the way Spring MVC does it
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<User> users;
+    private List<Issue> issues;
+    private List<CalculationResponse> calculationResponses;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        users = new ArrayList<>();
+        issues = new ArrayList<>();
+        calculationResponses = new ArrayList<>();
+        for (int i = 0; i < size; ++i) {
+            User user = new User((long) i, "First" + i, "Last" + i);
+            users.add(user);
+            issues.add(new Issue(
+                    (long) i,
+                    "Summary of issue " + i,
+                    Issue.Type.values()[i % Issue.Type.values().length],
+                    Issue.Priority.values()[i % Issue.Priority.values().length],
+                    "Description of issue " + i + ", *with* some `markdown`",
+                    users.get(i / 10)));
+            calculationResponses.add(CalculationResponse.success(
+                    new CalculationRequest(CalculationRequest.Operator.ADD, String.valueOf(i), "1"),
+                    i + 1));
+        }
+    }
+
+    @Benchmark
+    public byte[] users() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] issues() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(issues);
+    }
+
+    @Benchmark
+    public byte[] calculationResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(calculationResponses);
+    }
+}
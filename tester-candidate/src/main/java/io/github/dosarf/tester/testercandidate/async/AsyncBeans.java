@@ -0,0 +1,53 @@
+package io.github.dosarf.tester.testercandidate.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class AsyncBeans {
+
+    // async.enabled=false runs every request on the request thread, as it comes;
+    // async.virtual-threads=true needs JDK 21 or later
+    @Bean
+    public Bulkheads bulkheads(
+            @Value("${async.enabled:false}") boolean enabled,
+            @Value("${async.virtual-threads:false}") boolean virtualThreads,
+            @Value("${async.calculator.threads:8}") int calculatorThreads,
+            @Value("${async.calculator.queue-capacity:200}") int calculatorQueueCapacity,
+            @Value("${async.issues.threads:16}") int issuesThreads,
+            @Value("${async.issues.queue-capacity:200}") int issuesQueueCapacity,
+            @Value("${async.users.threads:8}") int usersThreads,
+            @Value("${async.users.queue-capacity:100}") int usersQueueCapacity,
+            @Value("${async.exports.threads:2}") int exportsThreads,
+            @Value("${async.exports.queue-capacity:10}") int exportsQueueCapacity,
+            @Value("${async.admin.threads:1}") int adminThreads,
+            @Value("${async.admin.queue-capacity:1}") int adminQueueCapacity,
+            MeterRegistry meterRegistry) {
+        Map<Bulkheads.Family, Bulkheads.Limits> limits = new EnumMap<>(Bulkheads.Family.class);
+        limits.put(Bulkheads.Family.CALCULATOR, new Bulkheads.Limits(calculatorThreads, calculatorQueueCapacity));
+        limits.put(Bulkheads.Family.ISSUES, new Bulkheads.Limits(issuesThreads, issuesQueueCapacity));
+        limits.put(Bulkheads.Family.USERS, new Bulkheads.Limits(usersThreads, usersQueueCapacity));
+        limits.put(Bulkheads.Family.EXPORTS, new Bulkheads.Limits(exportsThreads, exportsQueueCapacity));
+        limits.put(Bulkheads.Family.ADMIN, new Bulkheads.Limits(adminThreads, adminQueueCapacity));
+        return new Bulkheads(enabled, virtualThreads, limits, meterRegistry);
+    }
+
+    @Bean
+    public SmartInitializingSingleton completedFutureReturnValueHandlerRegistration(RequestMappingHandlerAdapter handlerAdapter) {
+        return () -> {
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+            handlers.add(0, new CompletedFutureReturnValueHandler(new ArrayList<>(handlers)));
+            handlerAdapter.setReturnValueHandlers(handlers);
+        };
+    }
+}
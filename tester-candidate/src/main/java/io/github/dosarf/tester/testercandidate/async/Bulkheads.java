@@ -0,0 +1,211 @@
+package io.github.dosarf.tester.testercandidate.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs the work of each endpoint family (calculator, issues, users, exports, admin) on an executor of
+// its own, off the request threads, so that a burst of slow exports can only ever hold up exports.
+// Each family runs at most async.<family>.threads tasks at once, with async.<family>.queue-capacity
+// more waiting, turning away the rest (503). Virtual threads (JDK 21+) can stand in for the pools,
+// under the same limits. With async mode off, tasks run right away, on the request thread.
+public class Bulkheads implements DisposableBean {
+
+    public enum Family {
+        CALCULATOR,
+        ISSUES,
+        USERS,
+        EXPORTS,
+        ADMIN;
+
+        public String property() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static class Limits {
+        private final int threads;
+        private final int queueCapacity;
+
+        public Limits(int threads, int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public interface Task<T> {
+        T run() throws Exception;
+    }
+
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public static class Overload extends RuntimeException {
+
+        public Overload(String format, Object ... args) {
+            super(String.format(format, args));
+        }
+    }
+
+    private final boolean enabled;
+    private final Map<Family, Executor> executors = new EnumMap<>(Family.class);
+    private final Map<Family, Counter> rejections = new EnumMap<>(Family.class);
+    private final List<ExecutorService> executorServices = new ArrayList<>();
+
+    public Bulkheads(
+            boolean enabled,
+            boolean virtualThreads,
+            Map<Family, Limits> limits,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        if (!enabled) {
+            return;
+        }
+
+        ExecutorService virtualThreadExecutor = virtualThreads ? virtualThreadExecutor() : null;
+        for (Family family : Family.values()) {
+            Limits familyLimits = limits.get(family);
+            Executor executor = virtualThreads
+                    ? bounded(virtualThreadExecutor, familyLimits)
+                    : threadPool(family, familyLimits, meterRegistry);
+            executors.put(family, executor);
+            rejections.put(family, Counter.builder("async.rejections")
+                    .tag("family", family.property())
+                    .description("Requests turned away because of a full queue")
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // the request is still at hand for the task (for the URIs of links, for instance)
+    public <T> CompletableFuture<T> supply(Family family, Task<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!enabled) {
+            complete(future, task);
+            return future;
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        try {
+            executors.get(family).execute(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                try {
+                    complete(future, task);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.get(family).increment();
+            future.completeExceptionally(new Overload("%s overloaded, try again later", family.property()));
+        }
+        return future;
+    }
+
+    @Override
+    public void destroy() {
+        executorServices.forEach(ExecutorService::shutdownNow);
+    }
+
+    private static <T> void complete(CompletableFuture<T> future, Task<T> task) {
+        try {
+            future.complete(task.run());
+        } catch (Exception | Error e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    private Executor threadPool(Family family, Limits limits, MeterRegistry meterRegistry) {
+        BlockingQueue<Runnable> queue = limits.queueCapacity > 0
+                ? new ArrayBlockingQueue<>(limits.queueCapacity)
+                : new SynchronousQueue<>();
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                limits.threads,
+                limits.threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                runnable -> {
+                    Thread thread = new Thread(runnable, "async-" + family.property() + "-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executorServices.add(executor);
+
+        Gauge.builder("async.queue", queue, BlockingQueue::size)
+                .tag("family", family.property())
+                .description("Number of requests waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("async.active", executor, ThreadPoolExecutor::getActiveCount)
+                .tag("family", family.property())
+                .description("Number of requests being worked on")
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // a virtual thread per task, never more than limits.threads of them running
+    private static Executor bounded(ExecutorService virtualThreadExecutor, Limits limits) {
+        Semaphore admitted = new Semaphore(limits.threads + limits.queueCapacity);
+        Semaphore running = new Semaphore(limits.threads);
+        return task -> {
+            if (!admitted.tryAcquire()) {
+                throw new RejectedExecutionException();
+            }
+            try {
+                virtualThreadExecutor.execute(() -> {
+                    try {
+                        running.acquireUninterruptibly();
+                        try {
+                            task.run();
+                        } finally {
+                            running.release();
+                        }
+                    } finally {
+                        admitted.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                admitted.release();
+                throw e;
+            }
+        };
+    }
+
+    // built for Java 8, so looked up
+    private ExecutorService virtualThreadExecutor() {
+        try {
+            ExecutorService executor = (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+            executorServices.add(executor);
+            return executor;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("virtual threads are not supported by this JDK: " + System.getProperty("java.version"), e);
+        }
+    }
+}
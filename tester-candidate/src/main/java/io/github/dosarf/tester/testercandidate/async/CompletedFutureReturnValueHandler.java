@@ -0,0 +1,96 @@
+package io.github.dosarf.tester.testercandidate.async;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// A future already completed (always, with async mode off, see Bulkheads) is handled right away,
+// as if its value had been returned, instead of going through an async dispatch for nothing.
+// Comes first, before Spring's own handler of futures, which takes the rest.
+public class CompletedFutureReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    // the value of a future, declared as the type argument of the future
+    private static class ValueParameter extends MethodParameter {
+        private final Object value;
+        private final ResolvableType valueType;
+
+        ValueParameter(MethodParameter returnType, Object value) {
+            super(returnType);
+            this.value = value;
+            this.valueType = ResolvableType.forMethodParameter(returnType).getGeneric();
+        }
+
+        private ValueParameter(ValueParameter original) {
+            super(original);
+            this.value = original.value;
+            this.valueType = original.valueType;
+        }
+
+        @Override
+        public Class<?> getParameterType() {
+            return Objects.nonNull(value) ? value.getClass() : valueType.resolve(Object.class);
+        }
+
+        @Override
+        public Type getGenericParameterType() {
+            return valueType.getType();
+        }
+
+        @Override
+        public ValueParameter clone() {
+            return new ValueParameter(this);
+        }
+    }
+
+    private final List<HandlerMethodReturnValueHandler> delegates;
+
+    public CompletedFutureReturnValueHandler(List<HandlerMethodReturnValueHandler> delegates) {
+        this.delegates = delegates;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return CompletableFuture.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(
+            Object returnValue,
+            MethodParameter returnType,
+            ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest) throws Exception {
+        CompletableFuture<?> future = (CompletableFuture<?>) returnValue;
+        if (Objects.isNull(future) || !future.isDone()) {
+            delegate(returnType).handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+
+        Object value;
+        try {
+            value = future.get();
+        } catch (ExecutionException e) {
+            // as if thrown by the handler
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw (Error) e.getCause();
+        }
+        MethodParameter valueType = new ValueParameter(returnType, value);
+        delegate(valueType).handleReturnValue(value, valueType, mavContainer, webRequest);
+    }
+
+    private HandlerMethodReturnValueHandler delegate(MethodParameter returnType) {
+        return delegates.stream()
+                .filter(delegate -> delegate.supportsReturnType(returnType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no handler for return type: " + returnType.getGenericParameterType()));
+    }
+}
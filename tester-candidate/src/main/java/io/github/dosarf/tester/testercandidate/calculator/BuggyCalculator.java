@@ -3,22 +3,98 @@ package io.github.dosarf.tester.testercandidate.calculator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 @Component
 public class BuggyCalculator implements Calculator {
 
     @Autowired
-    private ScriptEngine scriptEngine;
+    private ScriptEnginePool scriptEnginePool;
+    @Autowired
+    private EvaluationExecutor evaluationExecutor;
 
     @Override
     public Number calculate(CalculationRequest.Operator operator, String[] operands) throws Exc {
-        String expression = getExpression(operator, operands);
-        try {
-            return (Number)scriptEngine.eval(expression);
-        } catch (ScriptException e) {
-            throw new Calculator.Exc(e, e.getMessage());
+        String[] boundOperands = getBoundOperands(operator, operands);
+        String script = getScript(operator);
+
+        return evaluationExecutor.execute(() -> scriptEnginePool.execute(engine -> {
+            try {
+                if (areDecimalLiterals(boundOperands)) {
+                    // plain numbers are bound to the precompiled script,
+                    // anything else is spliced into the expression as before
+                    String a = boundOperands[0];
+                    String b = boundOperands.length > 1 ? boundOperands[1] : "0";
+                    double aValue = Double.parseDouble(a);
+                    double bValue = Double.parseDouble(b);
+                    Number result = (Number)engine.eval(script, aValue, bValue);
+                    return isArithmetic(operator)
+                            ? DecimalLiterals.arithmeticResult(result.doubleValue(), a, aValue, b, bValue)
+                            : result;
+                }
+                return (Number)engine.eval(getExpression(operator, operands));
+            } catch (ScriptException e) {
+                throw new Calculator.Exc(e, e.getMessage());
+            }
+        }));
+    }
+
+    private String[] getBoundOperands(CalculationRequest.Operator operator, String[] operands) throws Exc {
+        switch (operator) {
+            case ADD:
+            case SUBTRACT:
+            case MULTIPLY:
+            case DIVIDE:
+                return new String[] { operands[0], operands[1] };
+            case SQUARE:
+                return new String[] { operands[0] };
+            case SQUARE_ROOT:
+                return new String[] { operands[0].replace("-", "") };
+            case POWER:
+                return new String[] { operands[0], operands[1].replace("-", "") };
+            default:
+                throw new Calculator.Exc(null, "unknown operator");
+        }
+    }
+
+    // the very same as getExpression, just with the operands bound as a and b
+    private String getScript(CalculationRequest.Operator operator) {
+        switch (operator) {
+            case ADD:
+                return "a + b";
+            case SUBTRACT:
+                return "b - a";
+            case MULTIPLY:
+                return "a * b";
+            case DIVIDE:
+                return "b / a";
+            case SQUARE:
+                return "Math.pow(a, 2)";
+            case SQUARE_ROOT:
+                return "Math.sqrt(a)";
+            default:
+                return "Math.pow(a, b)";
+        }
+    }
+
+    private static boolean areDecimalLiterals(String[] operands) {
+        for (String operand : operands) {
+            if (!DecimalLiterals.isDecimalLiteral(operand)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isArithmetic(CalculationRequest.Operator operator) {
+        switch (operator) {
+            case ADD:
+            case SUBTRACT:
+            case MULTIPLY:
+            case DIVIDE:
+                return true;
+            default:
+                return false;
         }
     }
 
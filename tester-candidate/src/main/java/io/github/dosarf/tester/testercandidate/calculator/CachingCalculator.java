@@ -0,0 +1,111 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import javax.script.ScriptException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+// Remembers results, and failures of evaluating malformed operands, by operator and operands.
+// Failures that have nothing to do with the operands (no script engine available etc) are not cached.
+public class CachingCalculator implements Calculator {
+
+    private static final class Key {
+        private final CalculationRequest.Operator operator;
+        private final String[] operands;
+        private final int hashCode;
+
+        Key(CalculationRequest.Operator operator, String[] operands) {
+            this.operator = operator;
+            this.operands = operands;
+            this.hashCode = 31 * operator.hashCode() + Arrays.hashCode(operands);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return operator == key.operator && Arrays.equals(operands, key.operands);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Failure {
+        private final Throwable cause;
+        private final String message;
+
+        Failure(Exc exc) {
+            this.cause = exc.getCause();
+            this.message = exc.getMessage();
+        }
+
+        Exc toExc() {
+            return new Exc(cause, "%s", message);
+        }
+    }
+
+    private final Calculator calculator;
+    private final Cache<Key, Object> cache;
+
+    public CachingCalculator(
+            Calculator calculator,
+            long maximumSize,
+            long expireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        this.calculator = calculator;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "calculator");
+    }
+
+    @Override
+    public Number calculate(CalculationRequest.Operator operator, String[] operands) throws Exc {
+        if (Objects.isNull(operator) || Objects.isNull(operands)) {
+            return calculator.calculate(operator, operands);
+        }
+
+        Key key = new Key(operator, normalize(operands));
+        Object cached = cache.getIfPresent(key);
+        if (cached instanceof Failure) {
+            throw ((Failure) cached).toExc();
+        } else if (cached != null) {
+            return (Number) cached;
+        }
+
+        try {
+            Number result = calculator.calculate(operator, operands);
+            cache.put(key, result);
+            return result;
+        } catch (Exc e) {
+            if (e.getCause() instanceof ScriptException) {
+                cache.put(key, new Failure(e));
+            }
+            throw e;
+        }
+    }
+
+    // surrounding whitespace makes no difference for plain numbers, it may for anything else though
+    // (positions in error messages)
+    private static String[] normalize(String[] operands) {
+        String[] normalized = operands.clone();
+        for (int i = 0; i < normalized.length; ++i) {
+            String operand = normalized[i];
+            if (Objects.nonNull(operand) && DecimalLiterals.isDecimalLiteral(operand.trim())) {
+                normalized[i] = operand.trim();
+            }
+        }
+        return normalized;
+    }
+}
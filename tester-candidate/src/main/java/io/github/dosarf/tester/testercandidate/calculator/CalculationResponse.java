@@ -1,5 +1,8 @@
 package io.github.dosarf.tester.testercandidate.calculator;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+@JsonSerialize(using = CalculationResponseSerializer.class)
 public class CalculationResponse {
     public CalculationRequest request;
     public String result;
@@ -24,4 +27,14 @@ public class CalculationResponse {
                 request,
                 String.format("ERROR: %s", errorDetails));
     }
+
+    public static CalculationResponse calculate(Calculator calculator, CalculationRequest request) {
+        try {
+            return success(
+                    request,
+                    calculator.calculate(request.operator, request.operands));
+        } catch (Calculator.Exc |RuntimeException e) {
+            return failure(request, e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Objects;
+
+// Writes the request echoed back, then the result.
+public class CalculationResponseSerializer extends StdSerializer<CalculationResponse> {
+
+    public CalculationResponseSerializer() {
+        super(CalculationResponse.class);
+    }
+
+    @Override
+    public void serialize(CalculationResponse response, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        CalculationRequest request = response.request;
+        if (Objects.isNull(request)) {
+            generator.writeNullField("request");
+        } else {
+            generator.writeObjectFieldStart("request");
+            if (Objects.isNull(request.operator)) {
+                generator.writeNullField("operator");
+            } else {
+                generator.writeStringField("operator", request.operator.name());
+            }
+            if (Objects.isNull(request.operands)) {
+                generator.writeNullField("operands");
+            } else {
+                generator.writeArrayFieldStart("operands");
+                for (String operand : request.operands) {
+                    generator.writeString(operand);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+        generator.writeStringField("result", response.result);
+        generator.writeEndObject();
+    }
+}
@@ -9,5 +9,26 @@ public interface Calculator {
         }
     }
 
+    // the calculation did not finish in time
+    class Timeout extends Exc {
+
+        public Timeout(Throwable t, String format, Object ... args) {
+            super(t, format, args);
+        }
+    }
+
+    // too many calculations going on, the calculation was not even attempted
+    class Overload extends Exc {
+
+        public Overload(Throwable t, String format, Object ... args) {
+            super(t, format, args);
+        }
+    }
+
     Number calculate(CalculationRequest.Operator operator, String[] operands) throws Exc;
+
+    // element-wise, operandColumns[j][i] being the j-th operand of the i-th calculation
+    default double[] calculateColumns(CalculationRequest.Operator operator, double[][] operandColumns) throws Exc {
+        return ColumnCalculation.calculate(operator, operandColumns);
+    }
 }
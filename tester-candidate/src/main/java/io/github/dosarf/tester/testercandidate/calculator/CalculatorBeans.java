@@ -1,17 +1,81 @@
 package io.github.dosarf.tester.testercandidate.calculator;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 
-import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 
 @Configuration
 public class CalculatorBeans {
     @Bean
-    public ScriptEngine scriptEngine() {
-        ScriptEngineManager mgr = new ScriptEngineManager();
-        ScriptEngine engine = mgr.getEngineByName("JavaScript");
-        return engine;
+    public ScriptEnginePool scriptEnginePool(
+            @Value("${calculator.script.pool.size:4}") int size,
+            @Value("${calculator.script.pool.max-wait-millis:1000}") long maxWaitMillis,
+            MeterRegistry meterRegistry) {
+        return new ScriptEnginePool(
+                () -> new ScriptEngineManager().getEngineByName("JavaScript"),
+                size,
+                maxWaitMillis,
+                meterRegistry);
+    }
+
+    // calculator.evaluation.queue-capacity=0 turns away calculations unless a thread is idle
+    @Bean
+    public EvaluationExecutor evaluationExecutor(
+            @Value("${calculator.evaluation.threads:4}") int threads,
+            @Value("${calculator.evaluation.queue-capacity:100}") int queueCapacity,
+            @Value("${calculator.evaluation.timeout-millis:2000}") long timeoutMillis,
+            @Value("${calculator.evaluation.stop-runaway-threads:false}") boolean stopRunawayThreads,
+            MeterRegistry meterRegistry) {
+        return new EvaluationExecutor(
+                threads,
+                queueCapacity,
+                timeoutMillis,
+                stopRunawayThreads,
+                meterRegistry);
+    }
+
+    // calculator.engine=script evaluates everything with the script engine,
+    // calculator.engine=native evaluates plain numeric operands in Java, same results;
+    // calculator.cache.maximum-size=0 turns off caching the results
+    @Bean
+    @Primary
+    public Calculator calculator(
+            BuggyCalculator buggyCalculator,
+            @Value("${calculator.engine:script}") String engine,
+            @Value("${calculator.cache.maximum-size:10000}") long cacheMaximumSize,
+            @Value("${calculator.cache.expire-after-write-seconds:600}") long cacheExpireAfterWriteSeconds,
+            MeterRegistry meterRegistry) {
+        Calculator calculator;
+        switch (engine) {
+            case "script":
+                calculator = buggyCalculator;
+                break;
+            case "native":
+                calculator = new NativeCalculator(buggyCalculator);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("unknown calculator.engine: %s", engine));
+        }
+
+        if (cacheMaximumSize > 0) {
+            calculator = new CachingCalculator(
+                    calculator,
+                    cacheMaximumSize,
+                    cacheExpireAfterWriteSeconds,
+                    meterRegistry);
+        }
+        return calculator;
+    }
+
+    @Bean
+    public ExpressionRegistry expressionRegistry(
+            @Value("${calculator.expressions.maximum-size:1000}") long maximumSize,
+            @Value("${calculator.expressions.expire-after-access-seconds:3600}") long expireAfterAccessSeconds,
+            MeterRegistry meterRegistry) {
+        return new ExpressionRegistry(maximumSize, expireAfterAccessSeconds, meterRegistry);
     }
 }
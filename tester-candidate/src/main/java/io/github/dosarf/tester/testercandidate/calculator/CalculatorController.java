@@ -1,6 +1,12 @@
 package io.github.dosarf.tester.testercandidate.calculator;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -9,12 +15,25 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.view.RedirectView;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping("/calculator")
 public class CalculatorController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final MediaType APPLICATION_NDJSON = MediaType.valueOf(APPLICATION_NDJSON_VALUE);
+
     @Autowired
     private Calculator calculator;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Bulkheads bulkheads;
 
     @GetMapping("/spa")
     public RedirectView redirect(RedirectAttributes attributes) {
@@ -32,22 +51,149 @@ public class CalculatorController {
             method = RequestMethod.POST,
             consumes = MediaType.APPLICATION_JSON_VALUE,
             produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<CalculationResponse> calculate(@RequestBody CalculationRequest request) {
-
-        try {
-            Number result = calculator.calculate(
-                    request.operator,
-                    request.operands);
-
-            return ResponseEntity
-                    .status(HttpStatus.OK)
-                    .body(CalculationResponse.success(request, result));
-        } catch (Calculator.Exc |RuntimeException e) {
-            // BUGGY ON PURPOSE: no distinction between bad request and internal error
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(CalculationResponse.failure(request, e.getMessage()));
-        }
+    public CompletableFuture<ResponseEntity<CalculationResponse>> calculate(@RequestBody CalculationRequest request) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            try {
+                Number result = calculator.calculate(
+                        request.operator,
+                        request.operands);
+
+                return ResponseEntity
+                        .status(HttpStatus.OK)
+                        .body(CalculationResponse.success(request, result));
+            } catch (Calculator.Timeout e) {
+                return ResponseEntity
+                        .status(HttpStatus.GATEWAY_TIMEOUT)
+                        .body(CalculationResponse.failure(request, e.getMessage()));
+            } catch (Calculator.Overload e) {
+                return ResponseEntity
+                        .status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(CalculationResponse.failure(request, e.getMessage()));
+            } catch (Calculator.Exc |RuntimeException e) {
+                // BUGGY ON PURPOSE: no distinction between bad request and internal error
+                return ResponseEntity
+                        .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(CalculationResponse.failure(request, e.getMessage()));
+            }
+        });
+    }
+
+    // Accepts a JSON array or NDJSON of requests, and answers in kind: responses are written in
+    // request order, one by one, while the requests are still being read, failures included inline.
+    @RequestMapping(
+            value = "/batch",
+            method = RequestMethod.POST,
+            consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE },
+            produces = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE })
+    public CompletableFuture<ResponseEntity<Void>> calculateBatch(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream requestBody,
+            HttpServletResponse response) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            boolean ndjson = contentType.isCompatibleWith(APPLICATION_NDJSON);
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(ndjson ? APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+
+            try (MappingIterator<CalculationRequest> requests = objectMapper
+                    .readerFor(CalculationRequest.class)
+                    .readValues(requestBody);
+                 JsonGenerator generator = objectMapper
+                         .getFactory()
+                         .createGenerator(response.getOutputStream())) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+
+                boolean malformed = false;
+                while (!malformed) {
+                    CalculationResponse calculationResponse;
+                    try {
+                        if (!requests.hasNextValue()) {
+                            break;
+                        }
+                        calculationResponse = CalculationResponse.calculate(calculator, requests.nextValue());
+                    } catch (JsonProcessingException e) {
+                        // can't tell where the next request would start, so this is the last response
+                        calculationResponse = CalculationResponse.failure(null, e.getOriginalMessage());
+                        malformed = true;
+                    }
+
+                    generator.writeObject(calculationResponse);
+                    if (ndjson) {
+                        generator.writeRaw('\n');
+                    }
+                    // on its way as soon as calculated
+                    generator.flush();
+                }
+
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+            // written already
+            return null;
+        });
+    }
+
+    @RequestMapping(
+            value = "/column",
+            method = RequestMethod.POST,
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<ColumnCalculationResponse>> calculateColumns(@RequestBody ColumnCalculationRequest request) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            try {
+                double[] result = calculator.calculateColumns(request.operator, request.operands);
+
+                return ResponseEntity
+                        .ok(ColumnCalculationResponse.success(request.operator, result));
+            } catch (Calculator.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(ColumnCalculationResponse.failure(request.operator, e.getMessage()));
+            }
+        });
+    }
+
+    // The same, with the operand columns one after the other as big-endian doubles,
+    // and the result column the same way.
+    @RequestMapping(
+            value = "/column",
+            method = RequestMethod.POST,
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE,
+            produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public CompletableFuture<ResponseEntity<byte[]>> calculateColumns(
+            @RequestParam CalculationRequest.Operator operator,
+            @RequestBody byte[] operandColumns) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            try {
+                int operandCount = ColumnCalculation.operandCount(operator);
+                if (operandColumns.length % (operandCount * Double.BYTES) != 0) {
+                    return ResponseEntity
+                            .badRequest()
+                            .build();
+                }
+
+                DoubleBuffer operandBuffer = ByteBuffer.wrap(operandColumns).asDoubleBuffer();
+                double[][] operands = new double[operandCount][operandBuffer.remaining() / operandCount];
+                for (double[] column : operands) {
+                    operandBuffer.get(column);
+                }
+
+                double[] result = calculator.calculateColumns(operator, operands);
+
+                ByteBuffer resultBuffer = ByteBuffer.allocate(result.length * Double.BYTES);
+                resultBuffer.asDoubleBuffer().put(result);
+                return ResponseEntity
+                        .ok(resultBuffer.array());
+            } catch (Calculator.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+        });
     }
 
 }
@@ -0,0 +1,20 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class CalculatorWebSocketBeans implements WebSocketConfigurer {
+
+    @Autowired
+    private CalculatorWebSocketHandler calculatorWebSocketHandler;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(calculatorWebSocketHandler, "/calculator/ws");
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// CalculationRequest frames in, CalculationResponse frames out, over one long-lived connection.
+// Frames of a connection are calculated one after the other, so a client sending faster than
+// it is served just has to wait. Responses to a client not reading them are buffered up to a
+// limit, beyond that the connection is closed, the client may fall back to the REST endpoint.
+@Component
+public class CalculatorWebSocketHandler extends TextWebSocketHandler {
+
+    @Autowired
+    private Calculator calculator;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${calculator.websocket.max-sessions:1000}")
+    private int maxSessions;
+    @Value("${calculator.websocket.max-text-message-size:8192}")
+    private int maxTextMessageSize;
+    @Value("${calculator.websocket.send-time-limit-millis:5000}")
+    private int sendTimeLimitMillis;
+    @Value("${calculator.websocket.send-buffer-size-limit:65536}")
+    private int sendBufferSizeLimit;
+
+    private final AtomicInteger sessionCount = new AtomicInteger();
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        if (sessionCount.incrementAndGet() > maxSessions) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("too many connections"));
+            return;
+        }
+
+        session.setTextMessageSizeLimit(maxTextMessageSize);
+        sessions.put(
+                session.getId(),
+                new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMillis, sendBufferSizeLimit));
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws IOException {
+        WebSocketSession responseSession = sessions.get(session.getId());
+        if (Objects.isNull(responseSession)) {
+            return;
+        }
+
+        CalculationResponse response;
+        try {
+            CalculationRequest request = objectMapper.readValue(message.getPayload(), CalculationRequest.class);
+            response = CalculationResponse.calculate(calculator, request);
+        } catch (JsonProcessingException e) {
+            response = CalculationResponse.failure(null, e.getOriginalMessage());
+        }
+
+        responseSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        sessionCount.decrementAndGet();
+    }
+}
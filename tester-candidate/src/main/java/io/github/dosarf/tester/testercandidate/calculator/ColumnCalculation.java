@@ -0,0 +1,136 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Applies an operator element-wise to operand columns, splitting the columns up between the
+// common fork/join pool. Element i gives the same number as calculating the operands
+// String.valueOf(column[i]) one by one, bugs included.
+final class ColumnCalculation extends RecursiveAction {
+
+    private static final int THRESHOLD = 16 * 1024;
+
+    private final CalculationRequest.Operator operator;
+    private final double[] a;
+    private final double[] b;
+    private final double[] result;
+    private final int from;
+    private final int to;
+
+    private ColumnCalculation(
+            CalculationRequest.Operator operator,
+            double[] a,
+            double[] b,
+            double[] result,
+            int from,
+            int to) {
+        this.operator = operator;
+        this.a = a;
+        this.b = b;
+        this.result = result;
+        this.from = from;
+        this.to = to;
+    }
+
+    static int operandCount(CalculationRequest.Operator operator) throws Calculator.Exc {
+        if (operator == null) {
+            throw new Calculator.Exc(null, "unknown operator");
+        }
+        switch (operator) {
+            case SQUARE:
+            case SQUARE_ROOT:
+                return 1;
+            default:
+                return 2;
+        }
+    }
+
+    static double[] calculate(
+            CalculationRequest.Operator operator,
+            double[][] operandColumns) throws Calculator.Exc {
+        int operandCount = operandCount(operator);
+        if (operandColumns == null || operandColumns.length != operandCount) {
+            throw new Calculator.Exc(null, "%s needs %d operand columns", operator, operandCount);
+        }
+        double[] a = operandColumns[0];
+        double[] b = operandCount > 1 ? operandColumns[1] : a;
+        if (a == null || b == null || a.length != b.length) {
+            throw new Calculator.Exc(null, "operand columns must be of the same length");
+        }
+
+        double[] result = new double[a.length];
+        ColumnCalculation calculation = new ColumnCalculation(operator, a, b, result, 0, a.length);
+        if (a.length <= THRESHOLD) {
+            calculation.computeDirectly();
+        } else {
+            ForkJoinPool.commonPool().invoke(calculation);
+        }
+        return result;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= THRESHOLD) {
+            computeDirectly();
+        } else {
+            int middle = (from + to) >>> 1;
+            invokeAll(
+                    new ColumnCalculation(operator, a, b, result, from, middle),
+                    new ColumnCalculation(operator, a, b, result, middle, to));
+        }
+    }
+
+    private void computeDirectly() {
+        switch (operator) {
+            case ADD:
+                for (int i = from; i < to; ++i) {
+                    result[i] = a[i] + b[i];
+                }
+                break;
+            case SUBTRACT:
+                // BUGGY ON PURPOSE: instead of a - b, calculates b - a
+                for (int i = from; i < to; ++i) {
+                    result[i] = b[i] - a[i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = from; i < to; ++i) {
+                    result[i] = a[i] * b[i];
+                }
+                break;
+            case DIVIDE:
+                // BUGGY ON PURPOSE: instead of a/b, calculates b/a
+                for (int i = from; i < to; ++i) {
+                    result[i] = b[i] / a[i];
+                }
+                break;
+            case SQUARE:
+                for (int i = from; i < to; ++i) {
+                    result[i] = Math.pow(a[i], 2);
+                }
+                break;
+            case SQUARE_ROOT:
+                // BUGGY ON PURPOSE: turns negative operand into positive one
+                for (int i = from; i < to; ++i) {
+                    result[i] = Math.sqrt(withoutMinus(a[i]));
+                }
+                break;
+            case POWER:
+                // BUGGY ON PURPOSE: turns negative exponent into positive one
+                for (int i = from; i < to; ++i) {
+                    result[i] = Math.pow(a[i], withoutMinus(b[i]));
+                }
+                break;
+        }
+    }
+
+    // the same as removing every '-' from String.valueOf(value), which also flips the sign of
+    // the exponent for values written in computerized scientific notation (below 10^-3)
+    static double withoutMinus(double value) {
+        double abs = Math.abs(value);
+        if (abs >= 1e-3 || abs == 0.0 || Double.isNaN(abs)) {
+            return abs;
+        }
+        return Double.parseDouble(Double.toString(abs).replace("-", ""));
+    }
+}
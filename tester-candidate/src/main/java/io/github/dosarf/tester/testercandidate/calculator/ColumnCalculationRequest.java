@@ -0,0 +1,15 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+public class ColumnCalculationRequest {
+    public CalculationRequest.Operator operator;
+    public double[][] operands;
+
+    public ColumnCalculationRequest() {}
+
+    public ColumnCalculationRequest(
+            CalculationRequest.Operator operator,
+            double[] ... operands) {
+        this.operator = operator;
+        this.operands = operands;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+public class ColumnCalculationResponse {
+    public CalculationRequest.Operator operator;
+    public double[] result;
+    public String error;
+
+    public ColumnCalculationResponse() {}
+
+    public ColumnCalculationResponse(
+            CalculationRequest.Operator operator,
+            double[] result,
+            String error) {
+        this.operator = operator;
+        this.result = result;
+        this.error = error;
+    }
+
+    public static ColumnCalculationResponse success(
+            CalculationRequest.Operator operator,
+            double[] result) {
+        return new ColumnCalculationResponse(operator, result, null);
+    }
+
+    public static ColumnCalculationResponse failure(
+            CalculationRequest.Operator operator,
+            String errorDetails) {
+        return new ColumnCalculationResponse(operator, null, String.format("ERROR: %s", errorDetails));
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import java.util.regex.Pattern;
+
+// How the JavaScript engine types plain decimal literals and arithmetic on them: a literal written
+// without a fraction is an int if its value fits one (unary minus on zero makes a negative zero
+// double though), and arithmetic on ints stays int as long as the result fits and is not negative zero.
+final class DecimalLiterals {
+
+    private static final Pattern DECIMAL_LITERAL = Pattern.compile(
+            "[+-]?((0|[1-9][0-9]*)(\\.[0-9]*)?|\\.[0-9]+)([eE][+-]?[0-9]+)?");
+
+    private DecimalLiterals() {}
+
+    static boolean isDecimalLiteral(String operand) {
+        return operand != null && DECIMAL_LITERAL.matcher(operand).matches();
+    }
+
+    static boolean isIntLiteral(String literal, double value) {
+        return literal.indexOf('.') < 0
+                && Math.abs(value) <= Integer.MAX_VALUE
+                && value == Math.rint(value)
+                && !(value == 0.0 && literal.startsWith("-"));
+    }
+
+    static boolean isInt(double result) {
+        return result >= Integer.MIN_VALUE
+                && result <= Integer.MAX_VALUE
+                && result == Math.rint(result)
+                && !(result == 0.0 && 1.0 / result < 0.0);
+    }
+
+    static Number arithmeticResult(double result, String left, double a, String right, double b) {
+        if (isIntLiteral(left, a) && isIntLiteral(right, b) && isInt(result)) {
+            return (int) result;
+        }
+        return result;
+    }
+}
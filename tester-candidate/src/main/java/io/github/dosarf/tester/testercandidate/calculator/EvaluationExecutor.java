@@ -0,0 +1,186 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.script.ScriptException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs script evaluations on a few dedicated threads instead of the request threads, so that
+// a never ending script (operands are spliced into the script) can only ever hold up those.
+// Callers wait for a limited time, and are turned away right away once the queue is full.
+// Script engines don't react to interrupts, so a script still running after the timeout can
+// only be got rid of by stopping its thread, the engine it ran on is dropped then. Only threads
+// in the midst of an evaluation (see stoppable) are stopped, never while leasing or creating an
+// engine; and none on JDK 20 or later, which does not stop threads any more.
+public class EvaluationExecutor {
+
+    public interface Task<T> {
+        T run() throws Calculator.Exc;
+    }
+
+    public interface Evaluation<T> {
+        T eval() throws ScriptException;
+    }
+
+    private static class RunningTask {
+        private Thread evaluating;
+        private boolean timedOut;
+
+        synchronized void evaluating() throws ScriptException {
+            if (timedOut) {
+                throw new ScriptException("timed out");
+            }
+            evaluating = Thread.currentThread();
+        }
+
+        synchronized void evaluated() {
+            evaluating = null;
+        }
+
+        // UnsupportedOperationException on JDK 20 or later
+        @SuppressWarnings("deprecation")
+        synchronized boolean stopIfEvaluating() {
+            timedOut = true;
+            if (evaluating == null) {
+                return false;
+            }
+            Thread thread = evaluating;
+            evaluating = null;
+            thread.stop();
+            return true;
+        }
+    }
+
+    private static final ThreadLocal<RunningTask> RUNNING_TASK = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final boolean stopRunawayThreads;
+    private final Counter timeouts;
+    private final Counter rejections;
+    private final Counter stoppedThreads;
+    private final Counter unstoppableThreads;
+
+    public EvaluationExecutor(
+            int threads,
+            int queueCapacity,
+            long timeoutMillis,
+            boolean stopRunawayThreads,
+            MeterRegistry meterRegistry) {
+        BlockingQueue<Runnable> queue = queueCapacity > 0
+                ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                queue,
+                threadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.stopRunawayThreads = stopRunawayThreads;
+
+        Gauge.builder("calculator.evaluation.queue", queue, BlockingQueue::size)
+                .description("Number of evaluations waiting for a thread")
+                .register(meterRegistry);
+        Gauge.builder("calculator.evaluation.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of evaluations running")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("calculator.evaluation.timeouts")
+                .description("Evaluations not finished in time")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("calculator.evaluation.rejections")
+                .description("Evaluations turned away because of a full queue")
+                .register(meterRegistry);
+        this.stoppedThreads = Counter.builder("calculator.evaluation.stopped")
+                .description("Evaluation threads stopped after a timeout")
+                .register(meterRegistry);
+        this.unstoppableThreads = Counter.builder("calculator.evaluation.unstoppable")
+                .description("Evaluation threads left running after a timeout, stopping threads unsupported")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Task<T> task) throws Calculator.Exc {
+        RunningTask runningTask = new RunningTask();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                RUNNING_TASK.set(runningTask);
+                try {
+                    return task.run();
+                } finally {
+                    RUNNING_TASK.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new Calculator.Overload(e, "calculator overloaded, try again later");
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            future.cancel(true);
+            if (stopRunawayThreads) {
+                try {
+                    if (runningTask.stopIfEvaluating()) {
+                        stoppedThreads.increment();
+                    }
+                } catch (UnsupportedOperationException unsupported) {
+                    unstoppableThreads.increment();
+                }
+            }
+            throw new Calculator.Timeout(e, "calculation timed out after %d ms", timeoutMillis);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new Calculator.Exc(e, "interrupted while waiting for the calculation");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Calculator.Exc) {
+                throw (Calculator.Exc) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new Calculator.Exc(cause, "%s", cause.getMessage());
+            }
+        }
+    }
+
+    // of a task of an executor, to be stopped if still running after the timeout
+    static <T> T stoppable(Evaluation<T> evaluation) throws ScriptException {
+        RunningTask runningTask = RUNNING_TASK.get();
+        if (runningTask == null) {
+            return evaluation.eval();
+        }
+        runningTask.evaluating();
+        try {
+            return evaluation.eval();
+        } finally {
+            runningTask.evaluated();
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "calculator-evaluation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
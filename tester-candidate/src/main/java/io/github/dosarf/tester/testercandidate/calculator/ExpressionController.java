@@ -0,0 +1,128 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/calculator/expression")
+public class ExpressionController {
+
+    @Autowired
+    private Calculator calculator;
+    @Autowired
+    private ExpressionRegistry expressionRegistry;
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @PostMapping(
+            value = "/",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<ExpressionHandle>> register(@RequestBody ExpressionHandle request) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            try {
+                ExpressionPlan plan = ExpressionPlan.compile(request.expression);
+                String handle = expressionRegistry.register(plan);
+
+                URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{handle}")
+                        .buildAndExpand(handle)
+                        .toUri();
+
+                return ResponseEntity
+                        .created(uri)
+                        .body(new ExpressionHandle(handle, plan.getExpression(), plan.getVariables()));
+            } catch (Calculator.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+        });
+    }
+
+    @PostMapping(
+            value = "/{handle}",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<ExpressionEvaluation>> evaluate(
+            @PathVariable String handle,
+            @RequestBody Map<String, String> bindings) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            Optional<ExpressionPlan> planMaybe = expressionRegistry.find(handle);
+
+            return planMaybe
+                    .map(plan -> evaluate(plan, bindings))
+                    .map(evaluation -> ResponseEntity
+                            .ok(evaluation))
+                    .orElseGet(() -> ResponseEntity
+                            .notFound()
+                            .build());
+        });
+    }
+
+    @PostMapping(
+            value = "/{handle}/batch",
+            consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<List<ExpressionEvaluation>>> evaluateBatch(
+            @PathVariable String handle,
+            @RequestBody List<Map<String, String>> bindingsList) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            Optional<ExpressionPlan> planMaybe = expressionRegistry.find(handle);
+
+            return planMaybe
+                    .map(plan -> bindingsList
+                            .stream()
+                            .map(bindings -> evaluate(plan, bindings))
+                            .collect(Collectors.toList()))
+                    .map(evaluations -> ResponseEntity
+                            .ok(evaluations))
+                    .orElseGet(() -> ResponseEntity
+                            .notFound()
+                            .build());
+        });
+    }
+
+    @DeleteMapping("/{handle}")
+    public CompletableFuture<ResponseEntity<Void>> evict(@PathVariable String handle) {
+        return bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            if (expressionRegistry.evict(handle)) {
+                return ResponseEntity
+                        .noContent()
+                        .build();
+            } else {
+                return ResponseEntity
+                        .notFound()
+                        .build();
+            }
+        });
+    }
+
+    private ExpressionEvaluation evaluate(ExpressionPlan plan, Map<String, String> bindings) {
+        List<String> variables = plan.getVariables();
+        String[] values = new String[variables.size()];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = bindings.get(variables.get(i));
+            if (values[i] == null) {
+                return ExpressionEvaluation.failure(bindings, String.format("unbound variable: %s", variables.get(i)));
+            }
+        }
+
+        try {
+            return ExpressionEvaluation.success(bindings, plan.evaluate(calculator, values));
+        } catch (Calculator.Exc | RuntimeException e) {
+            return ExpressionEvaluation.failure(bindings, e.getMessage());
+        }
+    }
+}
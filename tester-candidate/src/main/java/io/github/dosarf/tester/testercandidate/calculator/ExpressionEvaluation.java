@@ -0,0 +1,29 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import java.util.Map;
+
+public class ExpressionEvaluation {
+    public Map<String, String> bindings;
+    public String result;
+
+    public ExpressionEvaluation() {}
+
+    public ExpressionEvaluation(
+            Map<String, String> bindings,
+            String result) {
+        this.bindings = bindings;
+        this.result = result;
+    }
+
+    public static <T> ExpressionEvaluation success(
+            Map<String, String> bindings,
+            T result) {
+        return new ExpressionEvaluation(bindings, result.toString());
+    }
+
+    public static ExpressionEvaluation failure(Map<String, String> bindings, String errorDetails) {
+        return new ExpressionEvaluation(
+                bindings,
+                String.format("ERROR: %s", errorDetails));
+    }
+}
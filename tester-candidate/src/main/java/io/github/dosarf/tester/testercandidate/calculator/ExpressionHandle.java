@@ -0,0 +1,20 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import java.util.List;
+
+public class ExpressionHandle {
+    public String handle;
+    public String expression;
+    public List<String> variables;
+
+    public ExpressionHandle() {}
+
+    public ExpressionHandle(
+            String handle,
+            String expression,
+            List<String> variables) {
+        this.handle = handle;
+        this.expression = expression;
+        this.variables = variables;
+    }
+}
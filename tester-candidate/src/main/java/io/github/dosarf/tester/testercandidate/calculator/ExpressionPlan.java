@@ -0,0 +1,193 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// A composite expression such as SQUARE_ROOT(ADD(a, b)), parsed once. Each operator is calculated by
+// the calculator on the results of its operands, just like separate calculation requests would,
+// identifiers stand for variables, anything else (like 2 or -1.5) is a constant operand.
+public class ExpressionPlan {
+
+    private static final Pattern VARIABLE = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private interface Node {
+        String evaluate(Calculator calculator, String[] values) throws Calculator.Exc;
+    }
+
+    private static class Variable implements Node {
+        private final int index;
+
+        Variable(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String evaluate(Calculator calculator, String[] values) {
+            return values[index];
+        }
+    }
+
+    private static class Constant implements Node {
+        private final String operand;
+
+        Constant(String operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public String evaluate(Calculator calculator, String[] values) {
+            return operand;
+        }
+    }
+
+    private static class Operation implements Node {
+        private final CalculationRequest.Operator operator;
+        private final Node[] operands;
+
+        Operation(CalculationRequest.Operator operator, Node[] operands) {
+            this.operator = operator;
+            this.operands = operands;
+        }
+
+        Number calculate(Calculator calculator, String[] values) throws Calculator.Exc {
+            String[] operandValues = new String[operands.length];
+            for (int i = 0; i < operands.length; ++i) {
+                operandValues[i] = operands[i].evaluate(calculator, values);
+            }
+            return calculator.calculate(operator, operandValues);
+        }
+
+        @Override
+        public String evaluate(Calculator calculator, String[] values) throws Calculator.Exc {
+            return calculate(calculator, values).toString();
+        }
+    }
+
+    private final String expression;
+    private final List<String> variables;
+    private final Operation root;
+
+    private ExpressionPlan(String expression, List<String> variables, Operation root) {
+        this.expression = expression;
+        this.variables = Collections.unmodifiableList(variables);
+        this.root = root;
+    }
+
+    public static ExpressionPlan compile(String expression) throws Calculator.Exc {
+        if (expression == null) {
+            throw new Calculator.Exc(null, "missing expression");
+        }
+        Parser parser = new Parser(expression);
+        Node root = parser.parseNode();
+        parser.expectEnd();
+        if (!(root instanceof Operation)) {
+            throw new Calculator.Exc(null, "expression must apply an operator: %s", expression);
+        }
+        return new ExpressionPlan(expression, parser.variables, (Operation) root);
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    // values in the order of getVariables()
+    public Number evaluate(Calculator calculator, String[] values) throws Calculator.Exc {
+        if (values.length != variables.size()) {
+            throw new Calculator.Exc(null, "expected %d values, got %d", variables.size(), values.length);
+        }
+        return root.calculate(calculator, values);
+    }
+
+    private static class Parser {
+        private final String expression;
+        private final List<String> variables = new ArrayList<>();
+        private int position = 0;
+
+        Parser(String expression) {
+            this.expression = expression;
+        }
+
+        Node parseNode() throws Calculator.Exc {
+            String atom = parseAtom();
+            if (!peek('(')) {
+                if (VARIABLE.matcher(atom).matches()) {
+                    int index = variables.indexOf(atom);
+                    if (index < 0) {
+                        index = variables.size();
+                        variables.add(atom);
+                    }
+                    return new Variable(index);
+                }
+                return new Constant(atom);
+            }
+
+            CalculationRequest.Operator operator = parseOperator(atom);
+            expect('(');
+            List<Node> operands = new ArrayList<>();
+            operands.add(parseNode());
+            while (peek(',')) {
+                expect(',');
+                operands.add(parseNode());
+            }
+            expect(')');
+
+            int operandCount = ColumnCalculation.operandCount(operator);
+            if (operands.size() != operandCount) {
+                throw new Calculator.Exc(null, "%s needs %d operands, got %d", operator, operandCount, operands.size());
+            }
+            return new Operation(operator, operands.toArray(new Node[0]));
+        }
+
+        void expectEnd() throws Calculator.Exc {
+            skipWhitespace();
+            if (position < expression.length()) {
+                throw new Calculator.Exc(null, "unexpected '%s' at %d", expression.charAt(position), position);
+            }
+        }
+
+        private String parseAtom() throws Calculator.Exc {
+            skipWhitespace();
+            int start = position;
+            while (position < expression.length() && "(),".indexOf(expression.charAt(position)) < 0) {
+                ++position;
+            }
+            String atom = expression.substring(start, position).trim();
+            if (atom.isEmpty()) {
+                throw new Calculator.Exc(null, "missing operand at %d", start);
+            }
+            return atom;
+        }
+
+        private CalculationRequest.Operator parseOperator(String atom) throws Calculator.Exc {
+            try {
+                return CalculationRequest.Operator.valueOf(atom);
+            } catch (IllegalArgumentException e) {
+                throw new Calculator.Exc(e, "unknown operator: %s", atom);
+            }
+        }
+
+        private boolean peek(char c) {
+            skipWhitespace();
+            return position < expression.length() && expression.charAt(position) == c;
+        }
+
+        private void expect(char c) throws Calculator.Exc {
+            if (!peek(c)) {
+                throw new Calculator.Exc(null, "expected '%s' at %d", c, position);
+            }
+            ++position;
+        }
+
+        private void skipWhitespace() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                ++position;
+            }
+        }
+    }
+}
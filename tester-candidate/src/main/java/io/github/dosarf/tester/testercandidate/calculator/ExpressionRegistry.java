@@ -0,0 +1,43 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Compiled expressions by handle, least used ones are dropped once the registry is full,
+// and those not used for a while expire.
+public class ExpressionRegistry {
+
+    private final Cache<String, ExpressionPlan> plans;
+
+    public ExpressionRegistry(
+            long maximumSize,
+            long expireAfterAccessSeconds,
+            MeterRegistry meterRegistry) {
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccessSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, "calculator.expressions");
+    }
+
+    public String register(ExpressionPlan plan) {
+        String handle = UUID.randomUUID().toString();
+        plans.put(handle, plan);
+        return handle;
+    }
+
+    public Optional<ExpressionPlan> find(String handle) {
+        return Optional.ofNullable(plans.getIfPresent(handle));
+    }
+
+    public boolean evict(String handle) {
+        return plans.asMap().remove(handle) != null;
+    }
+}
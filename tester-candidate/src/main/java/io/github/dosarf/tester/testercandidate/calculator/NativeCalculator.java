@@ -0,0 +1,89 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+// Evaluates the operators in plain Java, mimicking what the JavaScript engine would return for the
+// same expression (see DecimalLiterals), Math.pow/Math.sqrt always give Double.
+// Operands that are not plain decimal literals are handed over to the script based calculator, so the
+// (deliberately weird) behaviour for hex/octal literals, identifiers, expressions etc stays as it is.
+public class NativeCalculator implements Calculator {
+
+    private final Calculator fallbackCalculator;
+
+    public NativeCalculator(Calculator fallbackCalculator) {
+        this.fallbackCalculator = fallbackCalculator;
+    }
+
+    @Override
+    public Number calculate(CalculationRequest.Operator operator, String[] operands) throws Exc {
+        // BUGGY ON PURPOSE, the same way as BuggyCalculator.getExpression
+        switch (operator) {
+            case ADD:
+            case MULTIPLY:
+                return arithmetic(operator, operands, operands[0], operands[1]);
+            case SUBTRACT:
+            case DIVIDE:
+                // BUGGY ON PURPOSE: instead of a - b (a / b), calculates b - a (b / a)
+                return arithmetic(operator, operands, operands[1], operands[0]);
+            case SQUARE:
+                return power(operator, operands, operands[0], "2");
+            case SQUARE_ROOT:
+                // BUGGY ON PURPOSE: turns negative operand into positive one
+                return squareRoot(operator, operands, operands[0].replace("-", ""));
+            case POWER:
+                // BUGGY ON PURPOSE: turns negative exponent into positive one
+                return power(operator, operands, operands[0], operands[1].replace("-", ""));
+            default:
+                throw new Calculator.Exc(null, "unknown operator");
+        }
+    }
+
+    private Number arithmetic(
+            CalculationRequest.Operator operator,
+            String[] operands,
+            String left,
+            String right) throws Exc {
+        if (!DecimalLiterals.isDecimalLiteral(left) || !DecimalLiterals.isDecimalLiteral(right)) {
+            return fallbackCalculator.calculate(operator, operands);
+        }
+
+        double a = Double.parseDouble(left);
+        double b = Double.parseDouble(right);
+        double result;
+        switch (operator) {
+            case ADD:
+                result = a + b;
+                break;
+            case SUBTRACT:
+                result = a - b;
+                break;
+            case MULTIPLY:
+                result = a * b;
+                break;
+            default:
+                result = a / b;
+                break;
+        }
+
+        return DecimalLiterals.arithmeticResult(result, left, a, right, b);
+    }
+
+    private Number power(
+            CalculationRequest.Operator operator,
+            String[] operands,
+            String base,
+            String exponent) throws Exc {
+        if (!DecimalLiterals.isDecimalLiteral(base) || !DecimalLiterals.isDecimalLiteral(exponent)) {
+            return fallbackCalculator.calculate(operator, operands);
+        }
+        return Math.pow(Double.parseDouble(base), Double.parseDouble(exponent));
+    }
+
+    private Number squareRoot(
+            CalculationRequest.Operator operator,
+            String[] operands,
+            String operand) throws Exc {
+        if (!DecimalLiterals.isDecimalLiteral(operand)) {
+            return fallbackCalculator.calculate(operator, operands);
+        }
+        return Math.sqrt(Double.parseDouble(operand));
+    }
+}
@@ -0,0 +1,153 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+// Script engines are not thread safe, so every calculation leases one engine exclusively.
+// Engines are created lazily, up to the pool size, each compiles a script template only once.
+public class ScriptEnginePool {
+
+    public interface Task<T> {
+        T run(PooledScriptEngine engine) throws Calculator.Exc;
+    }
+
+    public static class PooledScriptEngine {
+        private final ScriptEngine engine;
+        private final Bindings operandBindings;
+        private final Map<String, CompiledScript> compiledScripts = new HashMap<>();
+
+        PooledScriptEngine(ScriptEngine engine) {
+            this.engine = engine;
+            // separate from the engine's own globals, so spliced expressions can't see the operands
+            this.operandBindings = engine.createBindings();
+        }
+
+        public Object eval(String expression) throws ScriptException {
+            return EvaluationExecutor.stoppable(() -> engine.eval(expression));
+        }
+
+        // the template refers to its operands as a and b
+        public Object eval(String template, double a, double b) throws ScriptException {
+            CompiledScript script = compiledScripts.get(template);
+            if (script == null) {
+                script = ((Compilable) engine).compile(template);
+                compiledScripts.put(template, script);
+            }
+            operandBindings.put("a", a);
+            operandBindings.put("b", b);
+            CompiledScript compiled = script;
+            return EvaluationExecutor.stoppable(() -> compiled.eval(operandBindings));
+        }
+    }
+
+    private final Supplier<ScriptEngine> engineFactory;
+    private final int size;
+    private final long maxWaitMillis;
+    private final BlockingQueue<PooledScriptEngine> idleEngines = new LinkedBlockingQueue<>();
+    private final AtomicInteger createdEngines = new AtomicInteger();
+    private final Timer waitTimer;
+
+    public ScriptEnginePool(
+            Supplier<ScriptEngine> engineFactory,
+            int size,
+            long maxWaitMillis,
+            MeterRegistry meterRegistry) {
+        if (size < 1) {
+            throw new IllegalArgumentException(String.format("script engine pool size must be positive: %d", size));
+        }
+        this.engineFactory = engineFactory;
+        this.size = size;
+        this.maxWaitMillis = maxWaitMillis;
+
+        this.waitTimer = Timer.builder("calculator.script.pool.wait")
+                .description("Time spent waiting for an idle script engine")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("calculator.script.pool.size", this, pool -> pool.size)
+                .description("Maximum number of script engines")
+                .register(meterRegistry);
+        Gauge.builder("calculator.script.pool.created", createdEngines, AtomicInteger::get)
+                .description("Number of script engines created so far")
+                .register(meterRegistry);
+        Gauge.builder("calculator.script.pool.idle", idleEngines, BlockingQueue::size)
+                .description("Number of idle script engines")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Task<T> task) throws Calculator.Exc {
+        PooledScriptEngine engine = lease();
+        boolean healthy = false;
+        try {
+            T result = task.run(engine);
+            healthy = true;
+            return result;
+        } catch (Calculator.Exc | RuntimeException e) {
+            healthy = true;
+            throw e;
+        } finally {
+            release(engine, healthy);
+        }
+    }
+
+    // an engine whose evaluation was cut short by an error (such as its thread being stopped)
+    // is dropped, a new one gets created in its place on demand
+    private void release(PooledScriptEngine engine, boolean healthy) {
+        if (healthy) {
+            idleEngines.offer(engine);
+        } else {
+            createdEngines.decrementAndGet();
+        }
+    }
+
+    private PooledScriptEngine lease() throws Calculator.Exc {
+        long start = System.nanoTime();
+        try {
+            PooledScriptEngine engine = idleEngines.poll();
+            if (engine == null) {
+                engine = createIfBelowSize();
+            }
+            if (engine == null) {
+                engine = idleEngines.poll(maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+            if (engine == null) {
+                throw new Calculator.Exc(null, "no script engine available in %d ms", maxWaitMillis);
+            }
+            return engine;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Calculator.Exc(e, "interrupted while waiting for a script engine");
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private PooledScriptEngine createIfBelowSize() {
+        int created = createdEngines.get();
+        while (created < size) {
+            if (createdEngines.compareAndSet(created, created + 1)) {
+                try {
+                    return new PooledScriptEngine(engineFactory.get());
+                } catch (Throwable t) {
+                    createdEngines.decrementAndGet();
+                    throw t;
+                }
+            }
+            created = createdEngines.get();
+        }
+        return null;
+    }
+}
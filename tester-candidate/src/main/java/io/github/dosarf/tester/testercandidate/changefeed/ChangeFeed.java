@@ -0,0 +1,310 @@
+package io.github.dosarf.tester.testercandidate.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueEvent;
+import io.github.dosarf.tester.testercandidate.tenancy.Tenants;
+import io.github.dosarf.tester.testercandidate.user.UserEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Committed changes of issues and users, as server-sent events, named issue or user, with
+//   {"type": "UPDATED", "id": 42, "issue": {...}}
+// as data (no issue or user for DELETED). Each subscriber has a buffer of its own (of
+// changefeed.buffer-size changes), emptied by one of changefeed.sender-threads threads, so a slow
+// subscriber holds up no one else: once its buffer is full, the buffered changes are dropped for a
+// resync event, telling it to fetch everything afresh. A subscriber not reading at all holds up a
+// sender thread, so one whose send takes longer than changefeed.send-timeout-millis is dropped
+// (looked for every half of that), its subscription completed once the send returns (the write
+// failing, at the latest). The last changefeed.replay-size changes are kept, so a
+// subscriber reconnecting with Last-Event-ID gets what it missed; if it missed more than that,
+// or ids of an earlier run of the service, it gets a resync event instead. Subscribers hear about
+// the changes of their own tenant only (see Tenants).
+public class ChangeFeed implements DisposableBean {
+
+    public static final String SUBSCRIBED = "subscribed";
+    public static final String RESYNC = "resync";
+
+    public static class Exc extends Exception {
+
+        public Exc(Throwable t, String format, Object ... args) {
+            super(String.format(format, args), t);
+        }
+    }
+
+    private static class Change {
+        private final long sequence;
+        private final String tenant;
+        private final String name;
+        private final String data;
+
+        Change(long sequence, String tenant, String name, String data) {
+            this.sequence = sequence;
+            this.tenant = tenant;
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final String tenant = Tenants.current();
+        private final BlockingQueue<Change> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean sending = new AtomicBoolean();
+        // System.nanoTime() as the send in progress started, 0 between sends
+        private volatile long sendStarted;
+        private volatile boolean dropped;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // by one thread at a time, holding the lock
+        void offer(Change change) {
+            if (!tenant.equals(change.tenant)) {
+                return;
+            }
+            if (!buffer.offer(change)) {
+                buffer.clear();
+                buffer.offer(new Change(change.sequence, tenant, RESYNC, "{}"));
+                resyncs.increment();
+            }
+            sendSoon();
+        }
+
+        // by one thread at a time, holding the lock; true if dropped, the send in progress too slow
+        boolean dropIfStalled(long now) {
+            long started = sendStarted;
+            if (started == 0 || now - started <= sendTimeoutNanos) {
+                return false;
+            }
+            dropped = true;
+            buffer.clear();
+            dropouts.increment();
+            // to complete it, unless still sending
+            sendSoon();
+            return true;
+        }
+
+        private void sendSoon() {
+            if (sending.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::send);
+                } catch (RejectedExecutionException e) {
+                    // queue full, or shut down: tried again with the next change
+                    sending.set(false);
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                Change change;
+                while (!dropped && Objects.nonNull(change = buffer.poll())) {
+                    sendStarted = System.nanoTime();
+                    emitter.send(SseEmitter.event()
+                            .id(eventId(change.sequence))
+                            .name(change.name)
+                            .data(change.data, MediaType.APPLICATION_JSON));
+                    sendStarted = 0;
+                }
+                if (dropped) {
+                    // reconnecting (with Last-Event-ID) gets it what it missed; sending no more
+                    emitter.complete();
+                    return;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // gone, or timed out
+                unsubscribe(this);
+                sending.set(false);
+                return;
+            }
+            sending.set(false);
+            // offered, or dropped, while finishing
+            if (dropped || !buffer.isEmpty()) {
+                sendSoon();
+            }
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final int maxSubscribers;
+    private final long sendTimeoutNanos;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService sweeper;
+    private final Counter resyncs;
+    private final Counter dropouts;
+    // event ids are <epoch>-<sequence>, sequences restarting with every run
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final Object lock = new Object();
+    private final ArrayDeque<Change> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = new HashSet<>();
+    private long sequence;
+
+    public ChangeFeed(
+            ObjectMapper objectMapper,
+            int bufferSize,
+            int replaySize,
+            int maxSubscribers,
+            int senderThreads,
+            long sendTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.replaySize = replaySize;
+        this.maxSubscribers = maxSubscribers;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        AtomicInteger threadCount = new AtomicInteger();
+        // a send at a time queued or running for every subscriber, at most
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, maxSubscribers)), runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(1), sendTimeoutNanos / 2);
+        sweeper.scheduleWithFixedDelay(this::dropStalled, sweepNanos, sweepNanos, TimeUnit.NANOSECONDS);
+
+        Gauge.builder("changefeed.subscribers", subscribers, Set::size)
+                .description("Number of subscribers to the change feed")
+                .register(meterRegistry);
+        this.resyncs = Counter.builder("changefeed.resyncs")
+                .description("Changes dropped for a resync, subscribers falling behind")
+                .register(meterRegistry);
+        this.dropouts = Counter.builder("changefeed.dropouts")
+                .description("Subscribers dropped, a send to them taking too long")
+                .register(meterRegistry);
+    }
+
+    // lastEventId may be missing, for the changes from now on
+    public void subscribe(SseEmitter emitter, String lastEventId) throws Exc {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        synchronized (lock) {
+            if (subscribers.size() >= maxSubscribers) {
+                throw new Exc(null, "too many subscribers: %d", subscribers.size());
+            }
+            subscribers.add(subscriber);
+
+            if (Objects.isNull(lastEventId)) {
+                // an id to reconnect with, even if no change comes before
+                subscriber.offer(new Change(sequence, subscriber.tenant, SUBSCRIBED, "{}"));
+                return;
+            }
+            long lastSequence = sequence(lastEventId);
+            long oldestSequence = replay.isEmpty() ? sequence + 1 : replay.peekFirst().sequence;
+            if (lastSequence < oldestSequence - 1 || lastSequence > sequence) {
+                subscriber.offer(new Change(sequence, subscriber.tenant, RESYNC, "{}"));
+                return;
+            }
+            for (Change change : replay) {
+                if (change.sequence > lastSequence) {
+                    subscriber.offer(change);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onIssueEvent(IssueEvent event) throws JsonProcessingException {
+        publish("issue", event.getType().name(), event.getIssue().getId(), event.getType() == IssueEvent.Type.DELETED ? null : event.getIssue());
+    }
+
+    @TransactionalEventListener
+    public void onUserEvent(UserEvent event) throws JsonProcessingException {
+        publish("user", event.getType().name(), event.getUser().getId(), event.getType() == UserEvent.Type.DELETED ? null : event.getUser());
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    // value may be missing
+    private void publish(String name, String type, Long id, Object value) throws JsonProcessingException {
+        ObjectNode data = objectMapper.createObjectNode()
+                .put("type", type)
+                .put("id", id);
+        if (Objects.nonNull(value)) {
+            data.set(name, objectMapper.valueToTree(value));
+        }
+        publish(name, objectMapper.writeValueAsString(data));
+    }
+
+    // a change of the current tenant
+    void publish(String name, String data) {
+        synchronized (lock) {
+            Change change = new Change(++sequence, Tenants.current(), name, data);
+            replay.addLast(change);
+            while (replay.size() > replaySize) {
+                replay.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        synchronized (lock) {
+            subscribers.removeIf(subscriber -> subscriber.dropIfStalled(now));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        synchronized (lock) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // of an earlier run of the service, or no id of this feed at all: -1
+    private long sequence(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.dosarf.tester.testercandidate.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ChangeFeedBeans {
+
+    @Bean
+    public ChangeFeed changeFeed(
+            ObjectMapper objectMapper,
+            @Value("${changefeed.buffer-size:256}") int bufferSize,
+            @Value("${changefeed.replay-size:1000}") int replaySize,
+            @Value("${changefeed.max-subscribers:1000}") int maxSubscribers,
+            @Value("${changefeed.sender-threads:2}") int senderThreads,
+            @Value("${changefeed.send-timeout-millis:10000}") long sendTimeoutMillis,
+            MeterRegistry meterRegistry) {
+        return new ChangeFeed(
+                objectMapper,
+                bufferSize,
+                replaySize,
+                maxSubscribers,
+                senderThreads,
+                sendTimeoutMillis,
+                meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.dosarf.tester.testercandidate.changefeed;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// see https://html.spec.whatwg.org/multipage/server-sent-events.html, EventSource reconnects
+// (with Last-Event-ID) once a subscription times out
+@RestController
+public class ChangeFeedController {
+
+    public static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Value("${changefeed.timeout-millis:1800000}")
+    private long timeoutMillis;
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> changes(
+            @RequestHeader(name = LAST_EVENT_ID, required = false) String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        try {
+            changeFeed.subscribe(emitter, lastEventId);
+        } catch (ChangeFeed.Exc e) {
+            return ResponseEntity
+                    .status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .build();
+        }
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(emitter);
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.dosarf.tester.testercandidate.etag;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Strong ETags, digested from the ids and versions of the entities a response is made of, so they
+// can be told (from a version query) without loading the entities, let alone writing the JSON.
+// see https://tools.ietf.org/html/rfc7232
+public class ETags {
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final String ANY = "*";
+
+    public static String of(Stream<String> stamps) {
+        String joined = stamps.collect(Collectors.joining(","));
+        return "\"" + DigestUtils.md5DigestAsHex(joined.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // of another representation of the same entities, told apart from the others
+    public static String variant(String etag, String representation) {
+        return etag.substring(0, etag.length() - 1) + "-" + representation + "\"";
+    }
+
+    // If-None-Match compares weakly, a missing header matches nothing
+    public static boolean isNotModified(String ifNoneMatch, String etag) {
+        if (Objects.isNull(ifNoneMatch)) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(WEAK_PREFIX)) {
+                tag = tag.substring(WEAK_PREFIX.length());
+            }
+            if (tag.equals(ANY) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Match compares strongly, a missing header is no precondition at all
+    public static boolean isPreconditionMet(String ifMatch, String etag) {
+        if (Objects.isNull(ifMatch)) {
+            return true;
+        }
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals(ANY) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .build();
+    }
+}
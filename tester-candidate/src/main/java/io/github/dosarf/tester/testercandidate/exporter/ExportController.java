@@ -1,5 +1,7 @@
 package io.github.dosarf.tester.testercandidate.exporter;
 
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import io.github.dosarf.tester.testercandidate.calculator.CalculatorController;
 import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
 import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
 import io.github.dosarf.tester.testercandidate.user.User;
@@ -8,14 +10,21 @@ import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 // see https://spring.io/guides/gs/serving-web-content/
@@ -28,27 +37,72 @@ public class ExportController {
     private IssueService issueService;
     @Autowired
     private IssueRenderer issueRenderer;
+    @Autowired
+    private StreamingExporter streamingExporter;
+    @Autowired
+    private Bulkheads bulkheads;
 
     @GetMapping(value = "exportissues/user/{id}", produces = MediaType.TEXT_HTML_VALUE)
-    public String exportIssuesCreatedBy(@PathVariable Long id, Model model) {
-        Optional<User> userMaybe = userService.findById(id);
+    public CompletableFuture<String> exportIssuesCreatedBy(@PathVariable Long id, Model model) {
+        return bulkheads.supply(Bulkheads.Family.EXPORTS, () -> {
+            Optional<User> userMaybe = userService.findById(id);
 
-        if (userMaybe.isPresent()) {
-            User creator = userMaybe.get();
-            List<RenderedIssue> issues = issueService
-                    .findByCreator(creator)
-                    .stream()
-                    .map(issueRenderer::render)
-                    .collect(Collectors.toList());
+            if (userMaybe.isPresent()) {
+                User creator = userMaybe.get();
+                List<RenderedIssue> issues = issueService
+                        .findByCreator(creator)
+                        .stream()
+                        .map(issueRenderer::render)
+                        .collect(Collectors.toList());
 
-            model.addAttribute("creator", creator);
-            model.addAttribute("issues", issues);
+                model.addAttribute("creator", creator);
+                model.addAttribute("issues", issues);
 
-            return "exportIssuesCreatedBy";
-        }
+                return "exportIssuesCreatedBy";
+            }
 
-        model.addAttribute("unknownUserId", id);
-        return "exportIssuesUserNotFound";
+            model.addAttribute("unknownUserId", id);
+            return "exportIssuesUserNotFound";
+        });
     }
 
+    // every issue, as NDJSON (or as a JSON array, if asked for)
+    @GetMapping(value = "exportissues", produces = { CalculatorController.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public CompletableFuture<ResponseEntity<Void>> exportIssues(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) {
+        return bulkheads.supply(Bulkheads.Family.EXPORTS, () -> {
+            boolean ndjson = isNdjson(accept);
+            prepare(response, ndjson);
+            streamingExporter.exportIssues(response.getOutputStream(), ndjson);
+            // written already
+            return null;
+        });
+    }
+
+    // every user, as NDJSON (or as a JSON array, if asked for)
+    @GetMapping(value = "exportusers", produces = { CalculatorController.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public CompletableFuture<ResponseEntity<Void>> exportUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) {
+        return bulkheads.supply(Bulkheads.Family.EXPORTS, () -> {
+            boolean ndjson = isNdjson(accept);
+            prepare(response, ndjson);
+            streamingExporter.exportUsers(response.getOutputStream(), ndjson);
+            // written already
+            return null;
+        });
+    }
+
+    private static boolean isNdjson(String accept) {
+        return Objects.isNull(accept) || MediaType
+                .parseMediaTypes(accept)
+                .stream()
+                .noneMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON));
+    }
+
+    private static void prepare(HttpServletResponse response, boolean ndjson) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(ndjson ? CalculatorController.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+    }
 }
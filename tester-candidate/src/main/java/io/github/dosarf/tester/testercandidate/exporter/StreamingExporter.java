@@ -0,0 +1,83 @@
+package io.github.dosarf.tester.testercandidate.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Writes every issue (or user) as it is read from the database, then forgets about it, so an
+// export takes the same memory no matter how many rows there are. As NDJSON or as a JSON array.
+@Component
+public class StreamingExporter {
+
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public void exportIssues(OutputStream outputStream, boolean ndjson) throws IOException {
+        try (Stream<Issue> issues = issueService.streamAll()) {
+            write(issues, outputStream, ndjson, issue -> {
+                entityManager.detach(issue);
+                if (Objects.nonNull(issue.getCreator())) {
+                    entityManager.detach(issue.getCreator());
+                }
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(OutputStream outputStream, boolean ndjson) throws IOException {
+        try (Stream<User> users = userService.streamAll()) {
+            write(users, outputStream, ndjson, entityManager::detach);
+        }
+    }
+
+    private <T> void write(
+            Stream<T> rows,
+            OutputStream outputStream,
+            boolean ndjson,
+            Consumer<T> detach) throws IOException {
+        try (JsonGenerator generator = objectMapper
+                .getFactory()
+                .createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T row = iterator.next();
+                generator.writeObject(row);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                detach.accept(row);
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.github.dosarf.tester.testercandidate.user.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// A page of issues, their creators as ids, each creator sent once, in the order first referred to:
+//   {"issues":[{"id":1,...,"creator":7},{"id":2,...,"creator":7}],"users":[{"id":7,...}]}
+@JsonSerialize(using = CompactIssuesSerializer.class)
+public class CompactIssues {
+
+    private final List<Issue> issues;
+    private final List<User> users;
+
+    public CompactIssues(List<Issue> issues) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        for (Issue issue : issues) {
+            User creator = issue.getCreator();
+            if (Objects.nonNull(creator)) {
+                users.putIfAbsent(creator.getId(), creator);
+            }
+        }
+        this.issues = issues;
+        this.users = new ArrayList<>(users.values());
+    }
+
+    public List<Issue> getIssues() {
+        return issues;
+    }
+
+    public List<User> getUsers() {
+        return users;
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.dosarf.tester.testercandidate.user.User;
+
+import java.io.IOException;
+
+// Writes the issues with their creators as ids, then those creators (see CompactIssues).
+public class CompactIssuesSerializer extends StdSerializer<CompactIssues> {
+
+    public CompactIssuesSerializer() {
+        super(CompactIssues.class);
+    }
+
+    @Override
+    public void serialize(CompactIssues compactIssues, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("issues");
+        for (Issue issue : compactIssues.getIssues()) {
+            IssueSerializer.write(issue, generator, provider, true);
+        }
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("users");
+        JsonSerializer<Object> userSerializer = provider.findValueSerializer(User.class);
+        for (User user : compactIssues.getUsers()) {
+            userSerializer.serialize(user, generator, provider);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
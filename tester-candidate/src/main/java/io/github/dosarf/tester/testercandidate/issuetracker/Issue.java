@@ -1,12 +1,28 @@
 package io.github.dosarf.tester.testercandidate.issuetracker;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.github.dosarf.tester.testercandidate.persistence.PersistenceBeans;
 import io.github.dosarf.tester.testercandidate.user.User;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 import javax.persistence.*;
 import java.util.Objects;
 
 // see https://spring.io/guides/gs/accessing-data-jpa/
 @Entity
+// listings and facets filter by creator, type and priority, counting straight off these
+@Table(indexes = {
+        @Index(name = "issue_creator_type_priority", columnList = "creator_id, type, priority"),
+        @Index(name = "issue_type_priority", columnList = "type, priority") })
+@EntityListeners(IssueEntityListener.class)
+// updates write the changed columns only, not every one (and the description) every time
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PersistenceBeans.ISSUE_REGION)
+@JsonSerialize(using = IssueSerializer.class)
 public class Issue {
 
     public static enum Type {
@@ -20,20 +36,37 @@ public class Issue {
         LOW
     }
 
+    public static final int SUMMARY_LENGTH = 255;
+    public static final int DESCRIPTION_LENGTH = 4096;
+
+    // ids are allocated 50 at a time, see hibernate.id.optimizer.pooled.preferred
     @Id
     @GeneratedValue(strategy= GenerationType.AUTO, generator = "ISSUE_SEQ")
+    @SequenceGenerator(name = "ISSUE_SEQ", sequenceName = "ISSUE_SEQ", allocationSize = 50)
     private Long id;
 
+    // sent as (part of) the ETag, not in the JSON; existing rows start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    @JsonIgnore
+    private long version;
+
+    @Column(length = SUMMARY_LENGTH)
     private String summary;
     private Type type;
     private Priority priority;
-    @Column(length = 4096)
+    @Column(length = DESCRIPTION_LENGTH)
     private String description;
 
     @ManyToOne
     @JoinColumn(name="creator_id")
     private User creator;
 
+    // creator, type and priority as last loaded (or written), see IssueEvent.getPrevious
+    @Transient
+    @JsonIgnore
+    private IssueFacets.Group counted;
+
     protected Issue() {}
 
     public Issue(
@@ -64,6 +97,10 @@ public class Issue {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getSummary() {
         return summary;
     }
@@ -102,6 +139,18 @@ public class Issue {
         this.creator = creator;
     }
 
+    IssueFacets.Group getCounted() {
+        return counted;
+    }
+
+    void count() {
+        this.counted = new IssueFacets.Group(
+                Objects.isNull(creator) ? null : creator.getId(),
+                type,
+                priority,
+                1);
+    }
+
     @Override
     public String toString() {
         return "Issue{" +
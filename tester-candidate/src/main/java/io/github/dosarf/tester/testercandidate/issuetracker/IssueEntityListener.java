@@ -0,0 +1,38 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+// Created by Hibernate through Spring (see SpringBeanContainer), so it can be autowired.
+public class IssueEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostLoad
+    public void loaded(Issue issue) {
+        issue.count();
+    }
+
+    @PostPersist
+    public void created(Issue issue) {
+        eventPublisher.publishEvent(new IssueEvent(IssueEvent.Type.CREATED, issue));
+        issue.count();
+    }
+
+    @PostUpdate
+    public void updated(Issue issue) {
+        eventPublisher.publishEvent(new IssueEvent(IssueEvent.Type.UPDATED, issue, issue.getCounted()));
+        issue.count();
+    }
+
+    @PostRemove
+    public void deleted(Issue issue) {
+        eventPublisher.publishEvent(new IssueEvent(IssueEvent.Type.DELETED, issue, issue.getCounted()));
+    }
+}
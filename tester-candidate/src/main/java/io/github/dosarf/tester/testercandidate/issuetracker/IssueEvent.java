@@ -0,0 +1,48 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+// Published whenever an issue is created, updated or deleted, in the transaction doing so:
+// listen with @TransactionalEventListener to hear about committed changes only.
+public class IssueEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Issue issue;
+    private final IssueFacets.Group previous;
+
+    public IssueEvent(Type type, Issue issue) {
+        this(type, issue, null);
+    }
+
+    public IssueEvent(Type type, Issue issue, IssueFacets.Group previous) {
+        this.type = type;
+        this.issue = issue;
+        this.previous = previous;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Issue getIssue() {
+        return issue;
+    }
+
+    // creator, type and priority before the change, if known (missing for CREATED)
+    public IssueFacets.Group getPrevious() {
+        return previous;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueEvent{" +
+                "type=" + type +
+                ", issue=" + issue +
+                ", previous=" + previous +
+                '}';
+    }
+}
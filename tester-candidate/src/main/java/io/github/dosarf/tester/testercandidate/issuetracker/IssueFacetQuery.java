@@ -0,0 +1,7 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+// see https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#repositories.custom-implementations
+public interface IssueFacetQuery {
+
+    IssueFacets countFacets(IssueFilter filter);
+}
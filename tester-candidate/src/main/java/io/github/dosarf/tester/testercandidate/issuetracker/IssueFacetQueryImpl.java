@@ -0,0 +1,38 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
+public class IssueFacetQueryImpl implements IssueFacetQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // One statement, grouping by creator, type and priority: answered from the index on the same
+    // columns, without reading issue rows. Cached until issues change.
+    @Override
+    public IssueFacets countFacets(IssueFilter filter) {
+        List<String> conditions = filter.conditions();
+        String jpql = "select i.creator.id, i.type, i.priority, count(i) from Issue i"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " group by i.creator.id, i.type, i.priority"
+                + " order by i.creator.id, i.type, i.priority";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        filter.bind(query);
+        query.setHint(HINT_CACHEABLE, true);
+
+        IssueFacets facets = new IssueFacets();
+        for (Object[] row : query.getResultList()) {
+            facets.add(new IssueFacets.Group(
+                    (Long) row[0],
+                    (Issue.Type) row[1],
+                    (Issue.Priority) row[2],
+                    (Long) row[3]));
+        }
+        return facets;
+    }
+}
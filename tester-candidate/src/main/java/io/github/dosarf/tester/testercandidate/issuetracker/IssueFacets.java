@@ -0,0 +1,63 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// Issue counts: all of them, by type, by priority, by creator (id), and by all three at once
+// (as in "how many HIGH DEFECTs per user"). Issues missing a type (priority, creator) are in the
+// total and the groups, but not in the counts by type (priority, creator).
+public class IssueFacets {
+
+    public static class Group {
+        public Long creator;
+        public Issue.Type type;
+        public Issue.Priority priority;
+        public long count;
+
+        public Group() {}
+
+        public Group(
+                Long creator,
+                Issue.Type type,
+                Issue.Priority priority,
+                long count) {
+            this.creator = creator;
+            this.type = type;
+            this.priority = priority;
+            this.count = count;
+        }
+
+        @Override
+        public String toString() {
+            return "Group{" +
+                    "creator=" + creator +
+                    ", type=" + type +
+                    ", priority=" + priority +
+                    ", count=" + count +
+                    '}';
+        }
+    }
+
+    public long total;
+    public Map<Issue.Type, Long> type = new TreeMap<>();
+    public Map<Issue.Priority, Long> priority = new TreeMap<>();
+    public Map<Long, Long> creator = new TreeMap<>();
+    public List<Group> groups = new ArrayList<>();
+
+    void add(Group group) {
+        total += group.count;
+        if (Objects.nonNull(group.type)) {
+            type.merge(group.type, group.count, Long::sum);
+        }
+        if (Objects.nonNull(group.priority)) {
+            priority.merge(group.priority, group.count, Long::sum);
+        }
+        if (Objects.nonNull(group.creator)) {
+            creator.merge(group.creator, group.count, Long::sum);
+        }
+        groups.add(group);
+    }
+}
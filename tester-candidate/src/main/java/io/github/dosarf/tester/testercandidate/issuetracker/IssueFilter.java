@@ -0,0 +1,75 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.paging.Pages;
+
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Which issues to list (or count): those of the given type, priority and creator, a missing one
+// not filtering at all. Types and priorities are given by name, as in type=DEFECT&priority=HIGH.
+public class IssueFilter {
+
+    public static final IssueFilter NONE = new IssueFilter(null, null, null);
+
+    private final Issue.Type type;
+    private final Issue.Priority priority;
+    private final Long creatorId;
+
+    private IssueFilter(Issue.Type type, Issue.Priority priority, Long creatorId) {
+        this.type = type;
+        this.priority = priority;
+        this.creatorId = creatorId;
+    }
+
+    public static IssueFilter parse(String type, String priority, Long creatorId) throws Pages.Exc {
+        try {
+            return new IssueFilter(
+                    Objects.isNull(type) ? null : Issue.Type.valueOf(type),
+                    Objects.isNull(priority) ? null : Issue.Priority.valueOf(priority),
+                    creatorId);
+        } catch (IllegalArgumentException e) {
+            throw new Pages.Exc(e, "invalid filter: type=%s, priority=%s", type, priority);
+        }
+    }
+
+    public Issue.Type getType() {
+        return type;
+    }
+
+    public Issue.Priority getPriority() {
+        return priority;
+    }
+
+    public Long getCreatorId() {
+        return creatorId;
+    }
+
+    // JPQL conditions on issue i, the creator by its foreign key, so without joining users
+    List<String> conditions() {
+        List<String> conditions = new ArrayList<>();
+        if (Objects.nonNull(creatorId)) {
+            conditions.add("i.creator.id = :creatorId");
+        }
+        if (Objects.nonNull(type)) {
+            conditions.add("i.type = :type");
+        }
+        if (Objects.nonNull(priority)) {
+            conditions.add("i.priority = :priority");
+        }
+        return conditions;
+    }
+
+    void bind(Query query) {
+        if (Objects.nonNull(creatorId)) {
+            query.setParameter("creatorId", creatorId);
+        }
+        if (Objects.nonNull(type)) {
+            query.setParameter("type", type);
+        }
+        if (Objects.nonNull(priority)) {
+            query.setParameter("priority", priority);
+        }
+    }
+}
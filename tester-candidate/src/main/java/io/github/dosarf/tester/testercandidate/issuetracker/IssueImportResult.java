@@ -0,0 +1,23 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+public class IssueImportResult {
+    public Long id;
+    public String error;
+
+    public IssueImportResult() {}
+
+    public IssueImportResult(
+            Long id,
+            String error) {
+        this.id = id;
+        this.error = error;
+    }
+
+    public static IssueImportResult success(Long id) {
+        return new IssueImportResult(id, null);
+    }
+
+    public static IssueImportResult failure(String errorDetails) {
+        return new IssueImportResult(null, String.format("ERROR: %s", errorDetails));
+    }
+}
@@ -0,0 +1,148 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+// Creates issues a batch (issuetracker.bulk.batch-size issues) at a time, each batch in a
+// transaction of its own: creators looked up in one go, ids taken from the pooled sequence, and
+// rows inserted in JDBC batches of the same size. An invalid issue fails alone, while a batch
+// failing in the database fails every issue it would have created.
+@Component
+public class IssueImporter {
+
+    // creators resolved so far, by id, unknown ones as empty, for all the batches of an import
+    public static class Creators {
+        private final Map<Long, Optional<User>> creators = new HashMap<>();
+    }
+
+    @Autowired
+    private UserService userService;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${issuetracker.bulk.batch-size:50}")
+    private int batchSize;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    // one result for each issue, in the same order
+    public List<IssueImportResult> importBatch(List<Issue> issues, Creators creators) {
+        List<IssueImportResult> results = new ArrayList<>();
+        List<Issue> persisted = new ArrayList<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(batchSize);
+                // a bulk import is not what users go on to read
+                session.setCacheMode(CacheMode.IGNORE);
+
+                resolve(issues, creators);
+                for (Issue issue : issues) {
+                    String error = validate(issue, creators);
+                    if (Objects.nonNull(error)) {
+                        results.add(IssueImportResult.failure(error));
+                        persisted.add(null);
+                        continue;
+                    }
+
+                    Issue copy = new Issue(
+                            issue.getSummary(),
+                            issue.getType(),
+                            issue.getPriority(),
+                            issue.getDescription(),
+                            creators.creators.get(issue.getCreator().getId()).get());
+                    entityManager.persist(copy);
+                    results.add(null);
+                    persisted.add(copy);
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            IssueImportResult batchFailure = IssueImportResult.failure(String.format("batch failed: %s", e.getMessage()));
+            for (int i = 0; i < issues.size(); ++i) {
+                if (i >= results.size()) {
+                    results.add(batchFailure);
+                } else if (Objects.nonNull(persisted.get(i))) {
+                    results.set(i, batchFailure);
+                }
+            }
+            return results;
+        }
+
+        for (int i = 0; i < results.size(); ++i) {
+            if (Objects.nonNull(persisted.get(i))) {
+                results.set(i, IssueImportResult.success(persisted.get(i).getId()));
+            }
+        }
+        return results;
+    }
+
+    private void resolve(List<Issue> issues, Creators creators) {
+        Set<Long> unresolved = new HashSet<>();
+        for (Issue issue : issues) {
+            Long creatorId = creatorId(issue);
+            if (Objects.nonNull(creatorId) && !creators.creators.containsKey(creatorId)) {
+                unresolved.add(creatorId);
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        for (User user : userService.findAllById(unresolved)) {
+            creators.creators.put(user.getId(), Optional.of(user));
+        }
+        for (Long creatorId : unresolved) {
+            creators.creators.putIfAbsent(creatorId, Optional.empty());
+        }
+    }
+
+    private static String validate(Issue issue, Creators creators) {
+        if (Objects.isNull(issue)) {
+            return "missing issue";
+        }
+        Long creatorId = creatorId(issue);
+        if (Objects.isNull(creatorId)) {
+            return "missing creator";
+        }
+        if (!creators.creators.get(creatorId).isPresent()) {
+            return String.format("unknown creator: %d", creatorId);
+        }
+        if (Objects.nonNull(issue.getSummary()) && issue.getSummary().length() > Issue.SUMMARY_LENGTH) {
+            return String.format("summary longer than %d characters", Issue.SUMMARY_LENGTH);
+        }
+        if (Objects.nonNull(issue.getDescription()) && issue.getDescription().length() > Issue.DESCRIPTION_LENGTH) {
+            return String.format("description longer than %d characters", Issue.DESCRIPTION_LENGTH);
+        }
+        return null;
+    }
+
+    private static Long creatorId(Issue issue) {
+        return Objects.isNull(issue) || Objects.isNull(issue.getCreator())
+                ? null
+                : issue.getCreator().getId();
+    }
+}
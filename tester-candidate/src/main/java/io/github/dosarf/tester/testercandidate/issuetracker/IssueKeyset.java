@@ -0,0 +1,119 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.paging.Pages;
+
+import java.util.Objects;
+
+// Where a page of issues starts: after the issue with the given sort key (priority or type)
+// and id. Issues are ordered by the sort key (in enum declaration order, missing ones last),
+// then by id. The cursor is the sort key and the id, as in HIGH:42, or just the id.
+public class IssueKeyset {
+
+    public enum Sort {
+        ID("id"),
+        PRIORITY("priority"),
+        TYPE("type");
+
+        private final String property;
+
+        Sort(String property) {
+            this.property = property;
+        }
+
+        public String getProperty() {
+            return property;
+        }
+
+        public static Sort parse(String sort) throws Pages.Exc {
+            if (Objects.isNull(sort)) {
+                return ID;
+            }
+            for (Sort candidate : values()) {
+                if (candidate.property.equals(sort)) {
+                    return candidate;
+                }
+            }
+            throw new Pages.Exc(null, "unknown sort: %s", sort);
+        }
+
+        Enum<?> keyOf(Issue issue) {
+            switch (this) {
+                case PRIORITY:
+                    return issue.getPriority();
+                case TYPE:
+                    return issue.getType();
+                default:
+                    return null;
+            }
+        }
+
+        Enum<?> parseKey(String key) {
+            if (key.isEmpty()) {
+                return null;
+            }
+            switch (this) {
+                case PRIORITY:
+                    return Issue.Priority.valueOf(key);
+                default:
+                    return Issue.Type.valueOf(key);
+            }
+        }
+    }
+
+    private final Sort sort;
+    private final Enum<?> key;
+    private final Long id;
+
+    private IssueKeyset(Sort sort, Enum<?> key, Long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    // cursor may be missing, for the first page
+    public static IssueKeyset parse(Sort sort, String cursor) throws Pages.Exc {
+        if (Objects.isNull(cursor)) {
+            return new IssueKeyset(sort, null, null);
+        }
+        if (sort == Sort.ID) {
+            return new IssueKeyset(sort, null, Pages.idCursor(cursor));
+        }
+
+        int separator = cursor.lastIndexOf(':');
+        if (separator < 0) {
+            throw new Pages.Exc(null, "invalid cursor: %s", cursor);
+        }
+        try {
+            return new IssueKeyset(
+                    sort,
+                    sort.parseKey(cursor.substring(0, separator)),
+                    Pages.idCursor(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new Pages.Exc(e, "invalid cursor: %s", cursor);
+        }
+    }
+
+    public static String cursorOf(Sort sort, Issue issue) {
+        if (sort == Sort.ID) {
+            return String.valueOf(issue.getId());
+        }
+        Enum<?> key = sort.keyOf(issue);
+        return (Objects.isNull(key) ? "" : key.name()) + ":" + issue.getId();
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    public Enum<?> getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public boolean isFirstPage() {
+        return Objects.isNull(id);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+
+// A JSON Merge Patch of an issue: members present are set (null clearing them), members missing
+// are left alone. The creator is patched by id, as in {"creator": {"id": 42}}, and can't be cleared.
+// see https://tools.ietf.org/html/rfc7396
+public class IssueMergePatch {
+
+    public static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    private static final String CREATOR = "creator";
+    private static final Set<String> FIELDS = new HashSet<>(Arrays.asList(
+            "summary", "type", "priority", "description", CREATOR));
+
+    public static class Exc extends Exception {
+
+        public Exc(Throwable t, String format, Object ... args) {
+            super(String.format(format, args), t);
+        }
+    }
+
+    // without the creator
+    private final ObjectNode fields;
+    private final Long creatorId;
+
+    private IssueMergePatch(ObjectNode fields, Long creatorId) {
+        this.fields = fields;
+        this.creatorId = creatorId;
+    }
+
+    public static IssueMergePatch parse(JsonNode patch) throws Exc {
+        if (Objects.isNull(patch) || !patch.isObject()) {
+            throw new Exc(null, "not an object: %s", patch);
+        }
+        ObjectNode fields = ((ObjectNode) patch).deepCopy();
+        Iterator<String> names = fields.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!FIELDS.contains(name)) {
+                throw new Exc(null, "can't patch %s", name);
+            }
+        }
+
+        JsonNode creator = fields.remove(CREATOR);
+        if (Objects.isNull(creator)) {
+            return new IssueMergePatch(fields, null);
+        }
+        if (!creator.isObject() || !creator.path("id").canConvertToLong()) {
+            throw new Exc(null, "creator must be given by id: %s", creator);
+        }
+        return new IssueMergePatch(fields, creator.get("id").asLong());
+    }
+
+    // the creator to look up, if any: unless it's the creator the issue already has
+    public Long getChangedCreatorId(Issue issue) {
+        if (Objects.isNull(creatorId)
+                || (Objects.nonNull(issue.getCreator()) && creatorId.equals(issue.getCreator().getId()))) {
+            return null;
+        }
+        return creatorId;
+    }
+
+    // all but the creator
+    public void apply(Issue issue, ObjectMapper objectMapper) throws Exc {
+        try {
+            objectMapper
+                    .readerForUpdating(issue)
+                    .readValue(fields);
+        } catch (IOException e) {
+            throw new Exc(e, "invalid patch: %s", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import java.util.List;
+
+// see https://docs.spring.io/spring-data/jpa/docs/current/reference/html/#repositories.custom-implementations
+public interface IssuePageQuery {
+
+    List<Issue> findPage(IssueFilter filter, IssueKeyset keyset, int limit);
+
+    // the same page, as versions only
+    List<IssueVersion> findPageVersions(IssueFilter filter, IssueKeyset keyset, int limit);
+}
@@ -0,0 +1,68 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Objects;
+
+public class IssuePageQueryImpl implements IssuePageQuery {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Issue> findPage(IssueFilter filter, IssueKeyset keyset, int limit) {
+        // creators come with the issues, rather than one by one after them
+        return pageQuery("select i from Issue i left join fetch i.creator c", Issue.class, filter, keyset, limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<IssueVersion> findPageVersions(IssueFilter filter, IssueKeyset keyset, int limit) {
+        return pageQuery(
+                "select new " + IssueVersion.class.getName() + "(i.id, i.version, c.id, c.version)"
+                        + " from Issue i left join i.creator c",
+                IssueVersion.class,
+                filter,
+                keyset,
+                limit)
+                .getResultList();
+    }
+
+    private <T> TypedQuery<T> pageQuery(String selectFrom, Class<T> resultClass, IssueFilter filter, IssueKeyset keyset, int limit) {
+        List<String> conditions = filter.conditions();
+
+        String property = "i." + keyset.getSort().getProperty();
+        String orderBy;
+        if (keyset.getSort() == IssueKeyset.Sort.ID) {
+            orderBy = "i.id";
+            if (!keyset.isFirstPage()) {
+                conditions.add("i.id > :id");
+            }
+        } else {
+            orderBy = property + " asc nulls last, i.id";
+            if (!keyset.isFirstPage() && Objects.isNull(keyset.getKey())) {
+                conditions.add(String.format("(%s is null and i.id > :id)", property));
+            } else if (!keyset.isFirstPage()) {
+                conditions.add(String.format(
+                        "(%1$s > :key or (%1$s = :key and i.id > :id) or %1$s is null)",
+                        property));
+            }
+        }
+
+        String jpql = selectFrom
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by " + orderBy;
+        TypedQuery<T> query = entityManager.createQuery(jpql, resultClass);
+        filter.bind(query);
+        if (!keyset.isFirstPage()) {
+            query.setParameter("id", keyset.getId());
+            if (Objects.nonNull(keyset.getKey())) {
+                query.setParameter("key", keyset.getKey());
+            }
+        }
+        return query
+                .setMaxResults(limit);
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.etag.ETags;
+import io.github.dosarf.tester.testercandidate.paging.Pages;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// Listings of issues come as a JSON array of issues, creators embedded, or, if asked for by media
+// type or by view=compact, as CompactIssues. Each has ETags of its own, and responses vary by Accept.
+public enum IssueRepresentation {
+    FULL,
+    COMPACT;
+
+    public static final String APPLICATION_COMPACT_JSON_VALUE = "application/vnd.tester.compact+json";
+    public static final MediaType APPLICATION_COMPACT_JSON = MediaType.valueOf(APPLICATION_COMPACT_JSON_VALUE);
+    public static final String VIEW_PARAM = "view";
+
+    private static final String COMPACT_VIEW = "compact";
+
+    // view, accept may be missing
+    public static IssueRepresentation of(String view, String accept) {
+        if (COMPACT_VIEW.equals(view)) {
+            return COMPACT;
+        }
+        if (Objects.nonNull(accept)) {
+            try {
+                for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                    if (APPLICATION_COMPACT_JSON.equalsTypeAndSubtype(mediaType)) {
+                        return COMPACT;
+                    }
+                }
+            } catch (InvalidMediaTypeException e) {
+                // left to content negotiation
+            }
+        }
+        return FULL;
+    }
+
+    public String etag(Stream<IssueVersion> versions) {
+        String etag = IssueVersion.etag(versions);
+        return this == COMPACT ? ETags.variant(etag, COMPACT_VIEW) : etag;
+    }
+
+    // issues: at most pageSize + 1 of them, as fetched
+    public ResponseEntity<?> ok(Pages pages, List<Issue> issues, int pageSize, IssueKeyset keyset) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity
+                .status(HttpStatus.OK)
+                .eTag(etag(issues.stream().map(IssueVersion::of)))
+                .varyBy(HttpHeaders.ACCEPT);
+        if (this == COMPACT) {
+            return pages.ok(
+                    ok.contentType(APPLICATION_COMPACT_JSON),
+                    issues,
+                    pageSize,
+                    issue -> IssueKeyset.cursorOf(keyset.getSort(), issue),
+                    CompactIssues::new);
+        }
+        return pages.ok(ok, issues, pageSize, issue -> IssueKeyset.cursorOf(keyset.getSort(), issue), page -> page);
+    }
+
+    public ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
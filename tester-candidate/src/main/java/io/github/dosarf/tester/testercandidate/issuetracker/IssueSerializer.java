@@ -0,0 +1,50 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserSerializer;
+
+import java.io.IOException;
+import java.util.Objects;
+
+// Writes the creator embedded; or, for CompactIssues, as an id only.
+public class IssueSerializer extends StdSerializer<Issue> {
+
+    public IssueSerializer() {
+        super(Issue.class);
+    }
+
+    @Override
+    public void serialize(Issue issue, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        write(issue, generator, provider, false);
+    }
+
+    static void write(Issue issue, JsonGenerator generator, SerializerProvider provider, boolean creatorAsId) throws IOException {
+        generator.writeStartObject();
+        UserSerializer.writeId(generator, "id", issue.getId());
+        generator.writeStringField("summary", issue.getSummary());
+        writeEnum(generator, "type", issue.getType());
+        writeEnum(generator, "priority", issue.getPriority());
+        generator.writeStringField("description", issue.getDescription());
+        User creator = issue.getCreator();
+        if (Objects.isNull(creator)) {
+            generator.writeNullField("creator");
+        } else if (creatorAsId) {
+            UserSerializer.writeId(generator, "creator", creator.getId());
+        } else {
+            generator.writeFieldName("creator");
+            provider.findValueSerializer(User.class).serialize(creator, generator, provider);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void writeEnum(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        if (Objects.isNull(value)) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeStringField(name, value.name());
+        }
+    }
+}
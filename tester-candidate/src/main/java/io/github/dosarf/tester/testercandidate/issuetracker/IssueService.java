@@ -1,10 +1,40 @@
 package io.github.dosarf.tester.testercandidate.issuetracker;
 
 import io.github.dosarf.tester.testercandidate.user.User;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface IssueService extends CrudRepository<Issue, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface IssueService extends CrudRepository<Issue, Long>, IssuePageQuery, IssueFacetQuery {
+    String STREAM_FETCH_SIZE = "500";
+
+    // cached, until issues change (any issue, that is)
+    @EntityGraph(attributePaths = "creator")
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Issue> findByCreator(User creator);
+
+    @Query("select new io.github.dosarf.tester.testercandidate.issuetracker.IssueVersion(i.id, i.version, c.id, c.version)"
+            + " from Issue i left join i.creator c where i.id = :id")
+    Optional<IssueVersion> findVersionById(@Param("id") Long id);
+
+    // all issues, in id order, read as they are consumed (bypassing the second-level cache);
+    // must be consumed (and closed) in a transaction
+    @Query("select i from Issue i left join fetch i.creator order by i.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE") })
+    Stream<Issue> streamAll();
 }
@@ -0,0 +1,207 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.tenancy.TenantClosedEvent;
+import io.github.dosarf.tester.testercandidate.tenancy.Tenants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Issue counts (the facets of all issues) kept in memory, for every tenant (see Tenants): counted
+// in the database once (on startup for the default tenant, when first asked for the others),
+// then kept up to date by committed issue changes. Reading them never touches the database.
+// Transactions changing issues hold (shared) the committing lock of their tenant from their first
+// change till they are completed, counting in the database holds it exclusively, till the counts
+// are in place: so every change is either committed before counting, or heard about once counted.
+// Counting holds up committing issue changes of its tenant for as long as the query takes.
+@Component
+public class IssueStatistics implements SmartInitializingSingleton {
+
+    private static final Comparator<IssueFacets.Group> GROUP_ORDER = Comparator
+            .comparing((IssueFacets.Group group) -> group.creator, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(group -> group.type, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(group -> group.priority, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private static class Key {
+        private final Long creator;
+        private final Issue.Type type;
+        private final Issue.Priority priority;
+
+        Key(IssueFacets.Group group) {
+            this.creator = group.creator;
+            this.type = group.type;
+            this.priority = group.priority;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(creator, key.creator) &&
+                    type == key.type &&
+                    priority == key.priority;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(creator, type, priority);
+        }
+    }
+
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Map<String, Map<Key, LongAdder>> counts = new ConcurrentHashMap<>();
+    // by tenant, kept once there (tenants closed come back with theirs)
+    private final Map<String, ReentrantReadWriteLock> committing = new ConcurrentHashMap<>();
+    private Counter missed;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        missed = Counter.builder("issue.stats.missed")
+                .description("Issue updates not counted, the issue as it was before unknown")
+                .register(meterRegistry);
+        counts();
+    }
+
+    // of the current tenant
+    public IssueFacets getFacets() {
+        List<IssueFacets.Group> groups = new ArrayList<>();
+        for (Map.Entry<Key, LongAdder> entry : counts().entrySet()) {
+            long count = entry.getValue().sum();
+            if (count > 0) {
+                groups.add(new IssueFacets.Group(entry.getKey().creator, entry.getKey().type, entry.getKey().priority, count));
+            }
+        }
+        groups.sort(GROUP_ORDER);
+
+        IssueFacets facets = new IssueFacets();
+        groups.forEach(facets::add);
+        return facets;
+    }
+
+    // as the change is made, once per transaction
+    @EventListener
+    public void onIssueChange(IssueEvent event) {
+        ReentrantReadWriteLock committing = committing(Tenants.current());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(committing)) {
+            return;
+        }
+        committing.readLock().lock();
+        TransactionSynchronizationManager.bindResource(committing, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            // after the change was counted (or not, on rollback)
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(committing);
+                committing.readLock().unlock();
+            }
+        });
+    }
+
+    @TransactionalEventListener
+    public void onIssueEvent(IssueEvent event) {
+        // not counted yet, will be in the database
+        Map<Key, LongAdder> tenantCounts = counts.get(Tenants.current());
+        if (Objects.isNull(tenantCounts)) {
+            return;
+        }
+
+        Issue issue = event.getIssue();
+        IssueFacets.Group current = new IssueFacets.Group(
+                Objects.isNull(issue.getCreator()) ? null : issue.getCreator().getId(),
+                issue.getType(),
+                issue.getPriority(),
+                1);
+        IssueFacets.Group previous = event.getPrevious();
+        switch (event.getType()) {
+            case CREATED:
+                add(tenantCounts, current, 1);
+                break;
+            case UPDATED:
+                if (Objects.nonNull(previous)) {
+                    add(tenantCounts, previous, -1);
+                    add(tenantCounts, current, 1);
+                } else {
+                    missed.increment();
+                }
+                break;
+            case DELETED:
+                add(tenantCounts, Objects.isNull(previous) ? current : previous, -1);
+                break;
+        }
+    }
+
+    @EventListener
+    public void onTenantClosed(TenantClosedEvent event) {
+        counts.remove(event.getTenant());
+    }
+
+    private Map<Key, LongAdder> counts() {
+        String tenant = Tenants.current();
+        Map<Key, LongAdder> tenantCounts = counts.get(tenant);
+        if (Objects.nonNull(tenantCounts)) {
+            return tenantCounts;
+        }
+        // counted once, other tenants going on meanwhile
+        synchronized (committing(tenant)) {
+            tenantCounts = counts.get(tenant);
+            if (Objects.isNull(tenantCounts)) {
+                tenantCounts = load(tenant);
+            }
+            return tenantCounts;
+        }
+    }
+
+    // in place by the time committing changes can go on
+    private Map<Key, LongAdder> load(String tenant) {
+        ReentrantReadWriteLock committing = committing(tenant);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> {
+            // the connection taken already, changes waiting to commit cannot take it (the pool)
+            committing.writeLock().lock();
+            try {
+                IssueFacets facets = issueService.countFacets(IssueFilter.NONE);
+                Map<Key, LongAdder> tenantCounts = new ConcurrentHashMap<>();
+                for (IssueFacets.Group group : facets.groups) {
+                    add(tenantCounts, group, group.count);
+                }
+                counts.put(tenant, tenantCounts);
+                return tenantCounts;
+            } finally {
+                committing.writeLock().unlock();
+            }
+        });
+    }
+
+    private ReentrantReadWriteLock committing(String tenant) {
+        return committing.computeIfAbsent(tenant, key -> new ReentrantReadWriteLock());
+    }
+
+    private static void add(Map<Key, LongAdder> tenantCounts, IssueFacets.Group group, long count) {
+        tenantCounts.computeIfAbsent(new Key(group), key -> new LongAdder()).add(count);
+    }
+}
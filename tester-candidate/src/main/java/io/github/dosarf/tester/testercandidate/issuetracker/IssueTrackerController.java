@@ -1,20 +1,37 @@
 package io.github.dosarf.tester.testercandidate.issuetracker;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import io.github.dosarf.tester.testercandidate.calculator.CalculatorController;
+import io.github.dosarf.tester.testercandidate.etag.ETags;
+import io.github.dosarf.tester.testercandidate.paging.Pages;
 import io.github.dosarf.tester.testercandidate.user.User;
 import io.github.dosarf.tester.testercandidate.user.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.web.servlet.view.RedirectView;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 @Controller
 @RequestMapping("/issue")
@@ -24,6 +41,16 @@ public class IssueTrackerController {
     private IssueService issueService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private Pages pages;
+    @Autowired
+    private IssueImporter issueImporter;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private IssueStatistics issueStatistics;
+    @Autowired
+    private Bulkheads bulkheads;
 
 
     @GetMapping("/spa")
@@ -38,111 +65,340 @@ public class IssueTrackerController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<Issue> issue(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Issue>> issue(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            if (Objects.nonNull(ifNoneMatch)) {
+                Optional<String> etagMaybe = issueService.findVersionById(id)
+                        .map(version -> IssueVersion.etag(Stream.of(version)));
+                if (etagMaybe.isPresent() && ETags.isNotModified(ifNoneMatch, etagMaybe.get())) {
+                    return ETags.notModified(etagMaybe.get());
+                }
+            }
 
-        Optional<Issue> issueMaybe = issueService.findById(id);
+            Optional<Issue> issueMaybe = issueService.findById(id);
 
-        return issueMaybe
-                .map(issue -> ResponseEntity.ok(issue))
-                .orElseGet(() -> ResponseEntity
-                        .status(HttpStatus.NOT_FOUND)
-                        .build());
+            return issueMaybe
+                    .map(issue -> ResponseEntity
+                            .status(HttpStatus.OK)
+                            .eTag(etag(issue))
+                            .body(issue))
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        });
     }
 
+    // If-Match: the ETag the issue was read with, if it must not have changed since
     @PutMapping("/{id}")
-    public ResponseEntity<Issue> update(
+    public CompletableFuture<ResponseEntity<Issue>> update(
             @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody Issue issue) {
-        User creatorFromRequest = issue.getCreator();
-        if (Objects.isNull(creatorFromRequest)) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(issue);
-        }
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            User creatorFromRequest = issue.getCreator();
+            if (Objects.isNull(creatorFromRequest)) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(issue);
+            }
 
-        Optional<User> creatorMaybe = userService.findById(creatorFromRequest.getId());
-        if (!creatorMaybe.isPresent()) {
-            return ResponseEntity
-                    .notFound()
-                    .build();
-        }
+            Optional<User> creatorMaybe = userService.findById(creatorFromRequest.getId());
+            if (!creatorMaybe.isPresent()) {
+                return ResponseEntity
+                        .notFound()
+                        .build();
+            }
 
-        User creator = creatorMaybe.get();
+            User creator = creatorMaybe.get();
 
-        Optional<Issue> issueMaybe = issueService.findById(id);
+            Optional<Issue> issueMaybe = issueService.findById(id);
 
-        if (!issueMaybe.isPresent()) {
-            return ResponseEntity
-                    .status(HttpStatus.NOT_FOUND)
-                    .build();
-        }
+            if (!issueMaybe.isPresent()) {
+                return ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .build();
+            }
 
-        Issue loadedIssue = issueMaybe.get();
-        loadedIssue.setSummary(issue.getSummary());
-        loadedIssue.setType(issue.getType());
-        loadedIssue.setPriority(issue.getPriority());
-        loadedIssue.setDescription(issue.getDescription());
-        loadedIssue.setCreator(creator);
+            Issue loadedIssue = issueMaybe.get();
+            if (!ETags.isPreconditionMet(ifMatch, etag(loadedIssue))) {
+                return ResponseEntity
+                        .status(HttpStatus.PRECONDITION_FAILED)
+                        .build();
+            }
+            loadedIssue.setSummary(issue.getSummary());
+            loadedIssue.setType(issue.getType());
+            loadedIssue.setPriority(issue.getPriority());
+            loadedIssue.setDescription(issue.getDescription());
+            loadedIssue.setCreator(creator);
 
-        Issue persistedIssue = issueService.save(loadedIssue);
+            Issue persistedIssue;
+            try {
+                persistedIssue = issueService.save(loadedIssue);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // updated by someone else since loaded
+                return ResponseEntity
+                        .status(HttpStatus.PRECONDITION_FAILED)
+                        .build();
+            }
+
+            if (Objects.isNull(persistedIssue)) {
+                return ResponseEntity
+                        .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .build();
+            } else {
+                return ResponseEntity
+                        .status(HttpStatus.OK)
+                        .eTag(etag(persistedIssue))
+                        .body(persistedIssue);
+            }
+        });
+    }
+
+    // A JSON Merge Patch (see IssueMergePatch), written as a single UPDATE of the changed columns
+    // only; the creator is looked up only if it changes.
+    @PatchMapping(
+            value = "/{id}",
+            consumes = { IssueMergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public CompletableFuture<ResponseEntity<Issue>> patch(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody JsonNode body) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            IssueMergePatch patch;
+            try {
+                patch = IssueMergePatch.parse(body);
+            } catch (IssueMergePatch.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+
+            Optional<Issue> issueMaybe = issueService.findById(id);
+            if (!issueMaybe.isPresent()) {
+                return ResponseEntity
+                        .status(HttpStatus.NOT_FOUND)
+                        .build();
+            }
+
+            Issue loadedIssue = issueMaybe.get();
+            if (!ETags.isPreconditionMet(ifMatch, etag(loadedIssue))) {
+                return ResponseEntity
+                        .status(HttpStatus.PRECONDITION_FAILED)
+                        .build();
+            }
+
+            Long creatorId = patch.getChangedCreatorId(loadedIssue);
+            if (Objects.nonNull(creatorId)) {
+                Optional<User> creatorMaybe = userService.findById(creatorId);
+                if (!creatorMaybe.isPresent()) {
+                    return ResponseEntity
+                            .notFound()
+                            .build();
+                }
+                loadedIssue.setCreator(creatorMaybe.get());
+            }
+            try {
+                patch.apply(loadedIssue, objectMapper);
+            } catch (IssueMergePatch.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+
+            Issue persistedIssue;
+            try {
+                persistedIssue = issueService.save(loadedIssue);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // updated by someone else since loaded
+                return ResponseEntity
+                        .status(HttpStatus.PRECONDITION_FAILED)
+                        .build();
+            }
 
-        if (Objects.isNull(persistedIssue)) {
-            return ResponseEntity
-                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .build();
-        } else {
             return ResponseEntity
-                    .ok(persistedIssue);
-        }
+                    .status(HttpStatus.OK)
+                    .eTag(etag(persistedIssue))
+                    .body(persistedIssue);
+        });
     }
 
     @PostMapping("/")
-    public ResponseEntity<Issue> create(@RequestBody Issue issue) {
-        User creatorFromRequest = issue.getCreator();
-        if (Objects.isNull(creatorFromRequest)) {
-            return ResponseEntity
-                    .badRequest()
-                    .body(issue);
-        }
+    public CompletableFuture<ResponseEntity<Issue>> create(@RequestBody Issue issue) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            User creatorFromRequest = issue.getCreator();
+            if (Objects.isNull(creatorFromRequest)) {
+                return ResponseEntity
+                        .badRequest()
+                        .body(issue);
+            }
 
-        Optional<User> creatorMaybe = userService.findById(creatorFromRequest.getId());
-        if (!creatorMaybe.isPresent()) {
-            return ResponseEntity
-                    .notFound()
-                    .build();
-        }
+            Optional<User> creatorMaybe = userService.findById(creatorFromRequest.getId());
+            if (!creatorMaybe.isPresent()) {
+                return ResponseEntity
+                        .notFound()
+                        .build();
+            }
 
-        User creator = creatorMaybe.get();
+            User creator = creatorMaybe.get();
 
-        Issue copy = new Issue(
-                issue.getSummary(),
-                issue.getType(),
-                issue.getPriority(),
-                issue.getDescription(),
-                creator);
+            Issue copy = new Issue(
+                    issue.getSummary(),
+                    issue.getType(),
+                    issue.getPriority(),
+                    issue.getDescription(),
+                    creator);
 
-        Issue persistedIssue = issueService.save(copy);
+            Issue persistedIssue = issueService.save(copy);
 
-        if (Objects.isNull(persistedIssue)) {
-            return ResponseEntity.notFound().build();
-        } else {
-            URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
-                    .path("/{id}")
-                    .buildAndExpand(persistedIssue.getId())
-                    .toUri();
+            if (Objects.isNull(persistedIssue)) {
+                return ResponseEntity.notFound().build();
+            } else {
+                URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(persistedIssue.getId())
+                        .toUri();
 
-            return ResponseEntity
-                    .created(uri)
-                    .body(persistedIssue);
-        }
+                return ResponseEntity
+                        .created(uri)
+                        .body(persistedIssue);
+            }
+        });
+    }
+
+    // Accepts a JSON array or NDJSON of issues, and answers in kind: with the id of each created issue
+    // (or why it was not created), in request order, written batch by batch while still reading.
+    @PostMapping(
+            value = "/bulk",
+            consumes = { MediaType.APPLICATION_JSON_VALUE, CalculatorController.APPLICATION_NDJSON_VALUE },
+            produces = { MediaType.APPLICATION_JSON_VALUE, CalculatorController.APPLICATION_NDJSON_VALUE })
+    public CompletableFuture<ResponseEntity<Void>> createBulk(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream requestBody,
+            HttpServletResponse response) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            boolean ndjson = contentType.isCompatibleWith(CalculatorController.APPLICATION_NDJSON);
+
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(ndjson ? CalculatorController.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+
+            try (MappingIterator<Issue> issues = objectMapper
+                    .readerFor(Issue.class)
+                    .readValues(requestBody);
+                 JsonGenerator generator = objectMapper
+                         .getFactory()
+                         .createGenerator(response.getOutputStream())) {
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+
+                IssueImporter.Creators creators = new IssueImporter.Creators();
+                boolean malformed = false;
+                while (!malformed) {
+                    List<Issue> batch = new ArrayList<>();
+                    String malformation = null;
+                    try {
+                        while (batch.size() < issueImporter.getBatchSize() && issues.hasNextValue()) {
+                            batch.add(issues.nextValue());
+                        }
+                    } catch (JsonProcessingException e) {
+                        // can't tell where the next issue would start, so this is the last result
+                        malformation = e.getOriginalMessage();
+                        malformed = true;
+                    }
+                    if (batch.isEmpty() && !malformed) {
+                        break;
+                    }
+
+                    List<IssueImportResult> results = batch.isEmpty()
+                            ? new ArrayList<>()
+                            : issueImporter.importBatch(batch, creators);
+                    if (malformed) {
+                        results.add(IssueImportResult.failure(malformation));
+                    }
+                    for (IssueImportResult result : results) {
+                        generator.writeObject(result);
+                        if (ndjson) {
+                            generator.writeRaw('\n');
+                        }
+                    }
+                    generator.flush();
+                }
+
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+            // written already
+            return null;
+        });
+    }
+
+    // IssueRepresentation.COMPACT by Accept or view=compact
+    @GetMapping(value = "/", produces = { MediaType.APPLICATION_JSON_VALUE, IssueRepresentation.APPLICATION_COMPACT_JSON_VALUE })
+    public CompletableFuture<ResponseEntity<?>> listAll(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(name = Pages.CURSOR_PARAM, required = false) String cursor,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long creator,
+            @RequestParam(name = IssueRepresentation.VIEW_PARAM, required = false) String view,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            try {
+                int pageSize = pages.size(size);
+                IssueKeyset keyset = IssueKeyset.parse(IssueKeyset.Sort.parse(sort), cursor);
+                IssueFilter filter = IssueFilter.parse(type, priority, creator);
+                IssueRepresentation representation = IssueRepresentation.of(view, accept);
+                if (Objects.nonNull(ifNoneMatch)) {
+                    String etag = representation.etag(issueService.findPageVersions(filter, keyset, pageSize + 1).stream());
+                    if (ETags.isNotModified(ifNoneMatch, etag)) {
+                        return representation.notModified(etag);
+                    }
+                }
+                List<Issue> issues = issueService.findPage(filter, keyset, pageSize + 1);
+
+                return representation.ok(pages, issues, pageSize, keyset);
+            } catch (Pages.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+        });
     }
 
-    @GetMapping(value = "/", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Iterable<Issue>>  listAll() {
-        Iterable<Issue> issues = issueService.findAll();
+    @GetMapping(value = "/facets", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<IssueFacets>> facets(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String priority,
+            @RequestParam(required = false) Long creator) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            try {
+                IssueFilter filter = IssueFilter.parse(type, priority, creator);
+
+                return ResponseEntity
+                        .ok(issueService.countFacets(filter));
+            } catch (Pages.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+        });
+    }
 
+    // the same counts, of all issues, kept in memory: answered right away, on the request thread
+    @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<IssueFacets> stats() {
         return ResponseEntity
-                .ok(issues);
+                .ok(issueStatistics.getFacets());
+    }
+
+    private static String etag(Issue issue) {
+        return IssueVersion.etag(Stream.of(IssueVersion.of(issue)));
     }
 
 }
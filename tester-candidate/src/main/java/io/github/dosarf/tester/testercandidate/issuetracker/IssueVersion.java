@@ -0,0 +1,38 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.etag.ETags;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+// What an issue, as sent, is made of: the issue and its creator, each at some version.
+public class IssueVersion {
+
+    private final Long id;
+    private final Long version;
+    private final Long creatorId;
+    private final Long creatorVersion;
+
+    // creator may be missing
+    public IssueVersion(Long id, Long version, Long creatorId, Long creatorVersion) {
+        this.id = id;
+        this.version = version;
+        this.creatorId = creatorId;
+        this.creatorVersion = creatorVersion;
+    }
+
+    public static IssueVersion of(Issue issue) {
+        return Objects.isNull(issue.getCreator())
+                ? new IssueVersion(issue.getId(), issue.getVersion(), null, null)
+                : new IssueVersion(issue.getId(), issue.getVersion(), issue.getCreator().getId(), issue.getCreator().getVersion());
+    }
+
+    // of an issue, or of a page of issues (as fetched, with the one past the page)
+    public static String etag(Stream<IssueVersion> versions) {
+        return ETags.of(versions.map(IssueVersion::stamp));
+    }
+
+    private String stamp() {
+        return id + ":" + version + ":" + creatorId + ":" + creatorVersion;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.dosarf.tester.testercandidate.paging;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Keyset pagination: a page is whatever comes after the cursor (the last row of the previous page),
+// so no page is more expensive than the first one. Rows are fetched with one extra row to tell
+// whether there is a next page, which is then linked to by the Link header, as in
+//   Link: <http://localhost:8080/issue/?size=100&cursor=42>; rel="next"
+@Component
+public class Pages {
+
+    public static final String CURSOR_PARAM = "cursor";
+
+    public static class Exc extends Exception {
+
+        public Exc(Throwable t, String format, Object ... args) {
+            super(String.format(format, args), t);
+        }
+    }
+
+    @Value("${paging.default-size:100}")
+    private int defaultSize;
+    @Value("${paging.max-size:1000}")
+    private int maxSize;
+
+    // no paging at all, for listings the issue tracker SPA reads whole (without following Link)
+    public static final int ALL = Integer.MAX_VALUE - 1;
+
+    public int size(Integer requestedSize) throws Exc {
+        if (Objects.isNull(requestedSize)) {
+            return defaultSize;
+        }
+        if (requestedSize < 1 || requestedSize > maxSize) {
+            throw new Exc(null, "page size must be between 1 and %d: %d", maxSize, requestedSize);
+        }
+        return requestedSize;
+    }
+
+    // the whole listing if neither size nor cursor is given
+    public int sizeOrAll(Integer requestedSize, String cursor) throws Exc {
+        return Objects.isNull(requestedSize) && Objects.isNull(cursor)
+                ? ALL
+                : size(requestedSize);
+    }
+
+    // rows: at most size + 1 of them, as fetched
+    public <T> ResponseEntity<List<T>> ok(List<T> rows, int size, Function<T, String> cursorOf) {
+        return ok(rows, size, cursorOf, null);
+    }
+
+    // etag may be missing
+    public <T> ResponseEntity<List<T>> ok(List<T> rows, int size, Function<T, String> cursorOf, String etag) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.status(HttpStatus.OK);
+        if (Objects.nonNull(etag)) {
+            ok.eTag(etag);
+        }
+        return ok(ok, rows, size, cursorOf, page -> page);
+    }
+
+    // the page in some other representation, ok having the other headers set already
+    public <T, B> ResponseEntity<B> ok(
+            ResponseEntity.BodyBuilder ok,
+            List<T> rows,
+            int size,
+            Function<T, String> cursorOf,
+            Function<List<T>, B> asBody) {
+        if (rows.size() <= size) {
+            return ok
+                    .body(asBody.apply(rows));
+        }
+
+        List<T> page = new ArrayList<>(rows.subList(0, size));
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam(CURSOR_PARAM, cursorOf.apply(page.get(size - 1)))
+                .toUriString();
+
+        return ok
+                .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", next))
+                .body(asBody.apply(page));
+    }
+
+    public static long idCursor(String cursor) throws Exc {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new Exc(e, "invalid cursor: %s", cursor);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.dosarf.tester.testercandidate.persistence;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+// http://localhost:8080/actuator/cacheregions: hits, misses, puts and sizes of the second-level
+// cache regions, to size them by (hit counts need hibernate.generate_statistics)
+@Component
+@Endpoint(id = "cacheregions")
+public class CacheRegionsEndpoint {
+
+    public static class Region {
+        public final long hits;
+        public final long misses;
+        public final long puts;
+        public final double hitRatio;
+        public final long size;
+
+        Region(CacheRegionStatistics statistics, long size) {
+            this.hits = statistics.getHitCount();
+            this.misses = statistics.getMissCount();
+            this.puts = statistics.getPutCount();
+            this.hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+            this.size = size;
+        }
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager secondLevelCacheManager;
+
+    @ReadOperation
+    public Map<String, Region> regions() {
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        Map<String, Region> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (Objects.nonNull(regionStatistics)) {
+                regions.put(regionName, new Region(regionStatistics, size(regionName)));
+            }
+        }
+        return regions;
+    }
+
+    private long size(String regionName) {
+        Cache<Object, Object> cache = secondLevelCacheManager.getCache(regionName);
+        return Objects.isNull(cache)
+                ? 0
+                : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize();
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.dosarf.tester.testercandidate.persistence;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+
+@Configuration
+public class PersistenceBeans {
+
+    public static final String USER_REGION = "user";
+    public static final String ISSUE_REGION = "issue";
+
+    // Hibernate's second-level cache regions, as Caffeine caches. Every application context gets
+    // caches of its own (just like a database of its own), sized by persistence.cache.*.maximum-size.
+    // The update timestamps region is never bounded, query results would be served stale otherwise.
+    @Bean
+    public CacheManager secondLevelCacheManager(
+            @Value("${persistence.cache.user.maximum-size:10000}") long userMaximumSize,
+            @Value("${persistence.cache.issue.maximum-size:100000}") long issueMaximumSize,
+            @Value("${persistence.cache.query.maximum-size:10000}") long queryMaximumSize) {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(
+                        URI.create(String.format("%s-%x", getClass().getName(), System.identityHashCode(this))),
+                        getClass().getClassLoader());
+
+        cacheManager.createCache(USER_REGION, configuration(OptionalLong.of(userMaximumSize)));
+        cacheManager.createCache(ISSUE_REGION, configuration(OptionalLong.of(issueMaximumSize)));
+        cacheManager.createCache(
+                RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                configuration(OptionalLong.of(queryMaximumSize)));
+        cacheManager.createCache(
+                RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                configuration(OptionalLong.empty()));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuration(OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        return configuration;
+    }
+}
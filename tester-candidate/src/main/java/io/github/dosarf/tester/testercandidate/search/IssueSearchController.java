@@ -0,0 +1,70 @@
+package io.github.dosarf.tester.testercandidate.search;
+
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import io.github.dosarf.tester.testercandidate.paging.Pages;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+// Ranked results come in numbered pages (a ranking has no keyset to continue from), the Link
+// header points to the next page, if any.
+@RestController
+public class IssueSearchController {
+
+    public static final String PAGE_PARAM = "page";
+
+    @Autowired
+    private IssueSearchIndex issueSearchIndex;
+    @Autowired
+    private Pages pages;
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @GetMapping(value = "/issue/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<IssueSearchResult>> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(name = PAGE_PARAM, required = false, defaultValue = "0") int page) {
+        return bulkheads.supply(Bulkheads.Family.ISSUES, () -> {
+            int pageSize;
+            try {
+                pageSize = pages.size(size);
+            } catch (Pages.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+            if (Objects.isNull(q) || q.trim().isEmpty() || page < 0) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+
+            // as far as it goes, not overflowing
+            long from = (long) page * pageSize;
+            IssueSearchResult result = issueSearchIndex.search(q, from, pageSize);
+            if (from + pageSize >= result.total) {
+                return ResponseEntity
+                        .ok(result);
+            }
+
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam(PAGE_PARAM, page + 1)
+                    .toUriString();
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .header(HttpHeaders.LINK, String.format("<%s>; rel=\"next\"", next))
+                    .body(result);
+        });
+    }
+}
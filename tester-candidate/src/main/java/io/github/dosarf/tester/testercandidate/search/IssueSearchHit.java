@@ -0,0 +1,33 @@
+package io.github.dosarf.tester.testercandidate.search;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+
+// highlights: matching passages, with the matches as <b>..</b>
+public class IssueSearchHit {
+    public Long id;
+    public float score;
+    public String summary;
+    public Issue.Type type;
+    public Issue.Priority priority;
+    public String summaryHighlight;
+    public String descriptionHighlight;
+
+    public IssueSearchHit() {}
+
+    public IssueSearchHit(
+            Long id,
+            float score,
+            String summary,
+            Issue.Type type,
+            Issue.Priority priority,
+            String summaryHighlight,
+            String descriptionHighlight) {
+        this.id = id;
+        this.score = score;
+        this.summary = summary;
+        this.type = type;
+        this.priority = priority;
+        this.summaryHighlight = summaryHighlight;
+        this.descriptionHighlight = descriptionHighlight;
+    }
+}
@@ -0,0 +1,331 @@
+package io.github.dosarf.tester.testercandidate.search;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueEvent;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.tenancy.TenantClosedEvent;
+import io.github.dosarf.tester.testercandidate.tenancy.Tenants;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopScoreDocCollector;
+import org.apache.lucene.search.uhighlight.UnifiedHighlighter;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+// An in-memory Lucene index over the summary and the description (markdown stripped) of issues,
+// one for every tenant (see Tenants). Built from the database (on startup for the default tenant,
+// on the first search for the others), then kept up to date by committed issue changes. Searches
+// see every change committed before them. Let go of once the database of the tenant is closed.
+// Changes committed while (re)building are applied once built: the database may have been read
+// before them, and applying a change twice makes no difference.
+@Component
+public class IssueSearchIndex implements SmartInitializingSingleton, DisposableBean {
+
+    private static final String ID = "id";
+    private static final String SUMMARY = "summary";
+    private static final String DESCRIPTION = "description";
+    private static final String TYPE = "type";
+    private static final String PRIORITY = "priority";
+
+    private class Index {
+        private final IndexWriter indexWriter;
+        private final SearcherManager searcherManager;
+        // while (re)building
+        private List<IssueEvent> pending = new ArrayList<>();
+        private volatile boolean built;
+
+        Index(Analyzer analyzer) throws IOException {
+            this.indexWriter = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(indexWriter, null);
+        }
+
+        synchronized void rebuilding() {
+            if (Objects.isNull(pending)) {
+                pending = new ArrayList<>();
+            }
+        }
+
+        synchronized void onIssueEvent(IssueEvent event) throws IOException {
+            if (Objects.nonNull(pending)) {
+                pending.add(event);
+            } else {
+                apply(event);
+            }
+        }
+
+        synchronized void rebuilt() throws IOException {
+            for (IssueEvent event : pending) {
+                apply(event);
+            }
+            pending = null;
+            built = true;
+        }
+
+        private void apply(IssueEvent event) throws IOException {
+            Issue issue = event.getIssue();
+            Term id = new Term(ID, String.valueOf(issue.getId()));
+            if (event.getType() == IssueEvent.Type.DELETED) {
+                indexWriter.deleteDocuments(id);
+            } else {
+                indexWriter.updateDocument(id, document(issue));
+            }
+        }
+
+        void close() throws IOException {
+            searcherManager.close();
+            indexWriter.close();
+        }
+    }
+
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private Parser markdownParser;
+
+    private final TextContentRenderer textRenderer = TextContentRenderer.builder().build();
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+    // being rebuilt next to the ones searched, to take their place once built
+    private final Map<String, Index> replacements = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        index();
+    }
+
+    // of the current tenant, into a fresh index taking the place of the current one once built:
+    // searches meanwhile see the current one, changes meanwhile reach both
+    public void rebuild() throws IOException {
+        String tenant = Tenants.current();
+        Index current = index();
+        synchronized (replacements) {
+            Index fresh = new Index(analyzer);
+            replacements.put(tenant, fresh);
+            boolean replaced = false;
+            try {
+                rebuild(fresh);
+                // unless the tenant closed meanwhile
+                replaced = indexes.replace(tenant, current, fresh);
+            } finally {
+                replacements.remove(tenant, fresh);
+                (replaced ? current : fresh).close();
+            }
+        }
+    }
+
+    @TransactionalEventListener
+    public void onIssueEvent(IssueEvent event) throws IOException {
+        // not built yet, will be from the database; the replacement looked up first, so that
+        // a change missing it (taken its place meanwhile) is sure to find it among the indexes
+        String tenant = Tenants.current();
+        Index replacement = replacements.get(tenant);
+        onIssueEvent(indexes.get(tenant), event);
+        onIssueEvent(replacement, event);
+    }
+
+    private void onIssueEvent(Index index, IssueEvent event) throws IOException {
+        if (Objects.isNull(index)) {
+            return;
+        }
+
+        try {
+            index.onIssueEvent(event);
+        } catch (AlreadyClosedException e) {
+            // the tenant closed meanwhile, or the index was replaced, and let go of
+        }
+    }
+
+    @EventListener
+    public void onTenantClosed(TenantClosedEvent event) throws IOException {
+        Index index = indexes.remove(event.getTenant());
+        if (Objects.nonNull(index)) {
+            index.close();
+        }
+    }
+
+    // ranked, with the matching passages of summary and description highlighted (as <b>..</b>);
+    // hits are collected up to from + size, at most as many as there are documents
+    public IssueSearchResult search(String queryString, long from, int size) throws IOException {
+        while (true) {
+            try {
+                return search(index(), queryString, from, size);
+            } catch (AlreadyClosedException e) {
+                // the tenant closed meanwhile, the index is built afresh
+            }
+        }
+    }
+
+    private IssueSearchResult search(Index index, String queryString, long from, int size) throws IOException {
+        Map<String, Float> weights = new HashMap<>();
+        weights.put(SUMMARY, 2.0f);
+        weights.put(DESCRIPTION, 1.0f);
+        SimpleQueryParser queryParser = new SimpleQueryParser(analyzer, weights);
+        queryParser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = queryParser.parse(queryString);
+        if (Objects.isNull(query)) {
+            return new IssueSearchResult(0, new ArrayList<>());
+        }
+
+        SearcherManager searcherManager = index.searcherManager;
+        searcherManager.maybeRefresh();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            int maxDoc = searcher.getIndexReader().maxDoc();
+            if (from >= maxDoc) {
+                // past the last page, nothing to collect
+                return new IssueSearchResult(searcher.count(query), new ArrayList<>());
+            }
+            TopScoreDocCollector collector = TopScoreDocCollector.create((int) Math.min(from + size, maxDoc), Integer.MAX_VALUE);
+            searcher.search(query, collector);
+            TopDocs allDocs = collector.topDocs();
+            if (from >= allDocs.scoreDocs.length) {
+                return new IssueSearchResult(allDocs.totalHits.value, new ArrayList<>());
+            }
+            ScoreDoc[] pageDocs = Arrays.copyOfRange(allDocs.scoreDocs, (int) from, allDocs.scoreDocs.length);
+            TopDocs page = new TopDocs(allDocs.totalHits, pageDocs);
+
+            Map<String, String[]> highlights = new UnifiedHighlighter(searcher, analyzer).highlightFields(
+                    new String[] { SUMMARY, DESCRIPTION },
+                    query,
+                    page,
+                    new int[] { 1, 2 });
+
+            List<IssueSearchHit> hits = new ArrayList<>();
+            for (int i = 0; i < pageDocs.length; ++i) {
+                Document document = searcher.doc(pageDocs[i].doc);
+                hits.add(new IssueSearchHit(
+                        Long.valueOf(document.get(ID)),
+                        pageDocs[i].score,
+                        document.get(SUMMARY),
+                        enumValue(Issue.Type.class, document.get(TYPE)),
+                        enumValue(Issue.Priority.class, document.get(PRIORITY)),
+                        highlights.get(SUMMARY)[i],
+                        highlights.get(DESCRIPTION)[i]));
+            }
+            return new IssueSearchResult(allDocs.totalHits.value, hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Index index : indexes.values()) {
+            index.close();
+        }
+        indexes.clear();
+    }
+
+    private Index index() {
+        String tenant = Tenants.current();
+        Index index = indexes.get(tenant);
+        if (Objects.nonNull(index) && index.built) {
+            return index;
+        }
+        // built by whoever came first, in the map already to hear about changes meanwhile
+        synchronized (indexes) {
+            index = indexes.get(tenant);
+            if (Objects.isNull(index)) {
+                try {
+                    index = new Index(analyzer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                indexes.put(tenant, index);
+                try {
+                    rebuild(index);
+                } catch (RuntimeException e) {
+                    indexes.remove(tenant, index);
+                    throw e;
+                }
+            }
+            return index;
+        }
+    }
+
+    private void rebuild(Index index) {
+        index.rebuilding();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Issue> issues = issueService.streamAll()) {
+                index.indexWriter.deleteAll();
+                Iterator<Issue> iterator = issues.iterator();
+                while (iterator.hasNext()) {
+                    index.indexWriter.addDocument(document(iterator.next()));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        try {
+            index.rebuilt();
+            index.searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Document document(Issue issue) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(issue.getId()), Field.Store.YES));
+        document.add(new TextField(SUMMARY, Objects.toString(issue.getSummary(), ""), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, plainText(issue.getDescription()), Field.Store.YES));
+        if (Objects.nonNull(issue.getType())) {
+            document.add(new StoredField(TYPE, issue.getType().name()));
+        }
+        if (Objects.nonNull(issue.getPriority())) {
+            document.add(new StoredField(PRIORITY, issue.getPriority().name()));
+        }
+        return document;
+    }
+
+    private String plainText(String markdown) {
+        return Objects.isNull(markdown)
+                ? ""
+                : textRenderer.render(markdownParser.parse(markdown));
+    }
+
+    private static <E extends Enum<E>> E enumValue(Class<E> enumType, String name) {
+        return Objects.isNull(name) ? null : Enum.valueOf(enumType, name);
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.dosarf.tester.testercandidate.search;
+
+import java.util.List;
+
+public class IssueSearchResult {
+    public long total;
+    public List<IssueSearchHit> hits;
+
+    public IssueSearchResult() {}
+
+    public IssueSearchResult(
+            long total,
+            List<IssueSearchHit> hits) {
+        this.total = total;
+        this.hits = hits;
+    }
+}
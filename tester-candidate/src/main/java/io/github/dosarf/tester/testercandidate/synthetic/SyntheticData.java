@@ -0,0 +1,159 @@
+package io.github.dosarf.tester.testercandidate.synthetic;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueImportResult;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueImporter;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+// Users and issues made up, for sizing: summaries of a few words, markdown descriptions (headings,
+// steps, code, emphasis) of up to synthetic.description-max-length characters, mostly short ones.
+// The same seed gives the very same data. Issues are created just like a bulk import, a batch
+// (issuetracker.bulk.batch-size) at a time, creators picked at random.
+@Component
+public class SyntheticData {
+
+    private static final String[] FIRST_NAMES = {
+            "Alice", "Bob", "Carol", "Dave", "Erin", "Frank", "Grace", "Heidi", "Ivan", "Judy",
+            "Mallory", "Niaj", "Olivia", "Peggy", "Rupert", "Sybil", "Trent", "Victor", "Walter", "Zoe" };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Jones", "Brown", "Taylor", "Wilson", "Davies", "Evans", "Thomas", "Roberts", "Walker",
+            "Virtanen", "Korhonen", "Nieminen", "Makinen", "Hamalainen" };
+    private static final String[] WORDS = {
+            "login", "page", "crash", "calculator", "result", "wrong", "button", "export", "report", "user",
+            "issue", "slow", "timeout", "error", "message", "missing", "field", "save", "cancel", "dialog",
+            "priority", "list", "sort", "filter", "search", "broken", "layout", "font", "overflow", "negative",
+            "division", "zero", "square", "root", "rounding", "decimal", "input", "validation", "blank", "server" };
+
+    public static class Result {
+        public int users;
+        public int issues;
+        public int failures;
+        public long millis;
+
+        public Result() {}
+
+        public Result(int users, int issues, int failures, long millis) {
+            this.users = users;
+            this.issues = issues;
+            this.failures = failures;
+            this.millis = millis;
+        }
+    }
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueImporter issueImporter;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${synthetic.description-max-length:4096}")
+    private int descriptionMaxLength;
+
+    public Result generate(int userCount, int issueCount, long seed) {
+        long start = System.nanoTime();
+        Random random = new Random(seed);
+
+        List<User> users = new ArrayList<>();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        while (users.size() < userCount) {
+            List<User> batch = new ArrayList<>();
+            while (batch.size() < issueImporter.getBatchSize() && users.size() + batch.size() < userCount) {
+                batch.add(new User(pick(random, FIRST_NAMES), pick(random, LAST_NAMES)));
+            }
+            transactionTemplate.executeWithoutResult(status -> userService.saveAll(batch).forEach(users::add));
+        }
+
+        int created = 0;
+        int failures = 0;
+        IssueImporter.Creators creators = new IssueImporter.Creators();
+        while (!users.isEmpty() && created + failures < issueCount) {
+            List<Issue> batch = new ArrayList<>();
+            while (batch.size() < issueImporter.getBatchSize() && created + failures + batch.size() < issueCount) {
+                batch.add(issue(random, users.get(random.nextInt(users.size()))));
+            }
+            for (IssueImportResult result : issueImporter.importBatch(batch, creators)) {
+                if (Objects.isNull(result.error)) {
+                    ++created;
+                } else {
+                    ++failures;
+                }
+            }
+        }
+
+        return new Result(users.size(), created, failures, (System.nanoTime() - start) / 1000000);
+    }
+
+    private Issue issue(Random random, User creator) {
+        return new Issue(
+                capitalize(words(random, 3 + random.nextInt(8))),
+                pick(random, Issue.Type.values()),
+                pick(random, Issue.Priority.values()),
+                description(random),
+                new User(creator.getId(), creator.getFirstName(), creator.getLastName()));
+    }
+
+    // lengths skewed to the short ones, the longest ones cut at the last full line
+    private String description(Random random) {
+        int maxLength = Math.min(descriptionMaxLength, Issue.DESCRIPTION_LENGTH);
+        double skewed = random.nextDouble();
+        int length = (int) (skewed * skewed * skewed * maxLength);
+        StringBuilder markdown = new StringBuilder();
+        while (markdown.length() < length) {
+            switch (random.nextInt(5)) {
+                case 0:
+                    markdown.append("## ").append(capitalize(words(random, 2 + random.nextInt(3)))).append("\n\n");
+                    break;
+                case 1:
+                    for (int step = 1; step <= 2 + random.nextInt(4); ++step) {
+                        markdown.append(step).append(". ").append(capitalize(words(random, 3 + random.nextInt(6)))).append('\n');
+                    }
+                    markdown.append('\n');
+                    break;
+                case 2:
+                    markdown.append("```\n")
+                            .append(random.nextInt(1000)).append(" / ").append(random.nextInt(10)).append(" = ?\n")
+                            .append("```\n\n");
+                    break;
+                default:
+                    markdown.append(capitalize(words(random, 8 + random.nextInt(20))))
+                            .append(" **").append(pick(random, WORDS)).append("**.\n\n");
+            }
+        }
+        if (markdown.length() > maxLength) {
+            int end = markdown.lastIndexOf("\n", maxLength - 1);
+            markdown.setLength(Math.max(end + 1, 0));
+        }
+        return markdown.toString();
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder words = new StringBuilder();
+        for (int i = 0; i < count; ++i) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(pick(random, WORDS));
+        }
+        return words.toString();
+    }
+
+    private static String capitalize(String text) {
+        return text.isEmpty() ? text : Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+
+    private static <T> T pick(Random random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,53 @@
+package io.github.dosarf.tester.testercandidate.synthetic;
+
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+// Into the database of the tenant of the request, for instance to take a template of, see
+// TenantTemplates: POST /tenant/<TENANT>/admin/generate?users=1000&issues=1000000, at most
+// synthetic.max-users and synthetic.max-issues at a time
+@RestController
+public class SyntheticDataController {
+
+    @Autowired
+    private SyntheticData syntheticData;
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Value("${synthetic.users:1000}")
+    private int defaultUsers;
+    @Value("${synthetic.issues:100000}")
+    private int defaultIssues;
+    @Value("${synthetic.max-users:100000}")
+    private int maxUsers;
+    @Value("${synthetic.max-issues:1000000}")
+    private int maxIssues;
+
+    @PostMapping(value = "/admin/generate", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<SyntheticData.Result>> generate(
+            @RequestParam(required = false) Integer users,
+            @RequestParam(required = false) Integer issues,
+            @RequestParam(required = false, defaultValue = "0") long seed) {
+        int userCount = Objects.isNull(users) ? defaultUsers : users;
+        int issueCount = Objects.isNull(issues) ? defaultIssues : issues;
+        if (userCount < 1 || userCount > maxUsers || issueCount < 0 || issueCount > maxIssues) {
+            return CompletableFuture.completedFuture(ResponseEntity
+                    .badRequest()
+                    .build());
+        }
+
+        return bulkheads.supply(Bulkheads.Family.ADMIN, () -> ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(syntheticData.generate(userCount, issueCount, seed)));
+    }
+}
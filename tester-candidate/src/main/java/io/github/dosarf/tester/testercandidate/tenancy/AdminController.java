@@ -0,0 +1,81 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.servlet.http.HttpServletRequest;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    @Autowired
+    private TenantTemplates tenantTemplates;
+
+    // of the database of the tenant of the request: POST /tenant/<TENANT>/admin/template
+    @PostMapping(value = "/template", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TemplateSnapshot> snapshot() {
+        long start = System.nanoTime();
+        try {
+            long size = tenantTemplates.snapshot();
+
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new TemplateSnapshot(
+                            Tenants.current(),
+                            tenantTemplates.getTemplate().toString(),
+                            size,
+                            (System.nanoTime() - start) / 1000000));
+        } catch (TenantTemplates.Exc e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+    }
+
+    // a tenant database, a copy of the template; answered with the users of the tenant as location
+    @PutMapping("/tenant/{tenant}")
+    public ResponseEntity<Void> provision(@PathVariable String tenant, HttpServletRequest request) {
+        if (!Tenants.isValid(tenant)) {
+            return ResponseEntity
+                    .badRequest()
+                    .build();
+        }
+
+        try {
+            tenantTemplates.provision(tenant);
+        } catch (TenantTemplates.NoTemplate e) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .build();
+        } catch (TenantTemplates.Conflict e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .build();
+        } catch (TenantTemplates.Exc e) {
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .build();
+        }
+
+        // not within the tenant the request came through, if any
+        URI uri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .replacePath(TenantFilter.contextPath(request))
+                .path(TenantFilter.PATH_PREFIX + "{tenant}/user/")
+                .buildAndExpand(tenant)
+                .toUri();
+
+        return ResponseEntity
+                .created(uri)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+public class TemplateSnapshot {
+    public String tenant;
+    public String template;
+    public long size;
+    public long millis;
+
+    public TemplateSnapshot() {}
+
+    public TemplateSnapshot(String tenant, String template, long size, long millis) {
+        this.tenant = tenant;
+        this.template = template;
+        this.size = size;
+        this.millis = millis;
+    }
+}
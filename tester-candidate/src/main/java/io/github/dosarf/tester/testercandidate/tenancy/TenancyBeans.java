@@ -0,0 +1,76 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.MultiTenancyStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+
+@Configuration
+public class TenancyBeans {
+
+    @Bean
+    public TenantDataSources tenantDataSources(
+            DataSource dataSource,
+            @Value("${tenancy.url-pattern:jdbc:h2:file:~/tester-candidate-h2-db-%s;DB_CLOSE_ON_EXIT=FALSE}") String urlPattern,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${tenancy.pool-size:2}") int poolSize,
+            @Value("${tenancy.max-open:100}") int maxOpen,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        return new TenantDataSources(dataSource, urlPattern, username, password, poolSize, maxOpen, eventPublisher, meterRegistry);
+    }
+
+    @Bean
+    public TenantTemplates tenantTemplates(
+            @Value("${tenancy.template:~/tester-candidate-h2-template.mv.db}") String template,
+            @Value("${tenancy.url-pattern:jdbc:h2:file:~/tester-candidate-h2-db-%s;DB_CLOSE_ON_EXIT=FALSE}") String urlPattern,
+            @Value("${spring.datasource.username:sa}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            TenantDataSources tenantDataSources) {
+        return new TenantTemplates(template, urlPattern, username, password, tenantDataSources);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer multiTenancyCustomizer(TenantDataSources tenantDataSources) {
+        CurrentTenantIdentifierResolver tenantIdentifierResolver = new CurrentTenantIdentifierResolver() {
+            @Override
+            public String resolveCurrentTenantIdentifier() {
+                return Tenants.current();
+            }
+
+            @Override
+            public boolean validateExistingCurrentSessions() {
+                return false;
+            }
+        };
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT, MultiTenancyStrategy.DATABASE);
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, tenantDataSources);
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, tenantIdentifierResolver);
+            properties.put(
+                    EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> Collections.singletonList(tenantDataSources));
+        };
+    }
+
+    // first of all, the tenant is needed for the very first query
+    @Bean
+    public FilterRegistrationBean<TenantFilter> tenantFilter(@Value("${tenancy.header:X-Tenant}") String header) {
+        FilterRegistrationBean<TenantFilter> registration = new FilterRegistrationBean<>(new TenantFilter(header));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
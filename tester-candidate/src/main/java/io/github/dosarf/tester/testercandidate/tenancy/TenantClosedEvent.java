@@ -0,0 +1,22 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+// Published once the database of a tenant is closed, to let go of whatever is kept of it.
+public class TenantClosedEvent {
+
+    private final String tenant;
+
+    public TenantClosedEvent(String tenant) {
+        this.tenant = tenant;
+    }
+
+    public String getTenant() {
+        return tenant;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantClosedEvent{" +
+                "tenant='" + tenant + '\'' +
+                '}';
+    }
+}
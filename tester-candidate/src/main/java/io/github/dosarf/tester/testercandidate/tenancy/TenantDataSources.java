@@ -0,0 +1,289 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// A database (tenancy.url-pattern, formatted with the tenant) for every tenant but the default
+// one, opened once first used, with a pool of tenancy.pool-size connections, its schema updated
+// just like the default one (spring.jpa.hibernate.ddl-auto=update). Once more than
+// tenancy.max-open databases are open, the least recently used ones are closed, provided no
+// connection of them is in use (see tenancy.open). A database is opened by the first request of
+// its tenant, the others of the tenant waiting for it, those of other tenants going on meanwhile.
+public class TenantDataSources implements MultiTenantConnectionProvider, Integrator, DisposableBean {
+
+    // leased while a connection of it is about to be taken or in use, closed only if not leased
+    private static class TenantDataSource {
+        private final CompletableFuture<HikariDataSource> opened = new CompletableFuture<>();
+        private int leases;
+        private boolean closed;
+
+        synchronized boolean lease() {
+            if (closed) {
+                return false;
+            }
+            ++leases;
+            return true;
+        }
+
+        synchronized void release() {
+            --leases;
+        }
+
+        synchronized boolean closeIfNotLeased() {
+            if (closed || leases > 0) {
+                return false;
+            }
+            closed = true;
+            return true;
+        }
+
+        boolean isOpened() {
+            return opened.isDone() && !opened.isCompletedExceptionally();
+        }
+
+        HikariDataSource await() {
+            try {
+                return opened.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private final DataSource defaultDataSource;
+    private final String urlPattern;
+    private final String username;
+    private final String password;
+    private final int poolSize;
+    private final int maxOpen;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, TenantDataSource> dataSources = new ConcurrentHashMap<>();
+    // tenants of dataSources, least recently used first, changed together with dataSources
+    private final Map<String, Boolean> recentlyUsed = new LinkedHashMap<>(16, 0.75f, true);
+    private volatile Metadata metadata;
+
+    public TenantDataSources(
+            DataSource defaultDataSource,
+            String urlPattern,
+            String username,
+            String password,
+            int poolSize,
+            int maxOpen,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry) {
+        this.defaultDataSource = defaultDataSource;
+        this.urlPattern = urlPattern;
+        this.username = username;
+        this.password = password;
+        this.poolSize = poolSize;
+        this.maxOpen = Math.max(1, maxOpen);
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("tenancy.open", this, TenantDataSources::getOpenCount)
+                .description("Number of tenant databases open")
+                .register(meterRegistry);
+    }
+
+    public int getOpenCount() {
+        return dataSources.size();
+    }
+
+    public boolean isOpen(String tenant) {
+        return dataSources.containsKey(tenant);
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return defaultDataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String tenant) throws SQLException {
+        if (Tenants.DEFAULT.equals(tenant)) {
+            return defaultDataSource.getConnection();
+        }
+
+        TenantDataSource dataSource = dataSource(tenant);
+        // closed in the meantime, as the least recently used
+        while (!dataSource.lease()) {
+            dataSource = dataSource(tenant);
+        }
+        try {
+            return dataSource.await().getConnection();
+        } catch (SQLException | RuntimeException e) {
+            dataSource.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String tenant, Connection connection) throws SQLException {
+        try {
+            connection.close();
+        } finally {
+            if (!Tenants.DEFAULT.equals(tenant)) {
+                // leased, not to be closed till released
+                dataSources.get(tenant).release();
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (isUnwrappableAs(unwrapType)) {
+            return (T) this;
+        }
+        throw new IllegalArgumentException("not unwrappable as " + unwrapType.getName());
+    }
+
+    // the mapping, to update the schemas of tenant databases with
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (recentlyUsed) {
+            dataSources.values().stream()
+                    .filter(TenantDataSource::isOpened)
+                    .forEach(dataSource -> dataSource.await().close());
+            dataSources.clear();
+            recentlyUsed.clear();
+        }
+    }
+
+    // opened, or being opened
+    private TenantDataSource dataSource(String tenant) {
+        TenantDataSource dataSource;
+        TenantDataSource opening = null;
+        synchronized (recentlyUsed) {
+            dataSource = dataSources.get(tenant);
+            if (Objects.isNull(dataSource)) {
+                dataSource = opening = new TenantDataSource();
+                dataSources.put(tenant, opening);
+            }
+            recentlyUsed.put(tenant, Boolean.TRUE);
+        }
+        if (Objects.nonNull(opening)) {
+            try {
+                opening.opened.complete(open(tenant));
+            } catch (RuntimeException e) {
+                synchronized (recentlyUsed) {
+                    dataSources.remove(tenant);
+                    recentlyUsed.remove(tenant);
+                }
+                opening.opened.completeExceptionally(e);
+                throw e;
+            }
+            closeLeastRecentlyUsed(tenant);
+        }
+        return dataSource;
+    }
+
+    // but the tenant just opened
+    private void closeLeastRecentlyUsed(String opened) {
+        List<String> tenants;
+        synchronized (recentlyUsed) {
+            tenants = new ArrayList<>(recentlyUsed.keySet());
+        }
+        for (String tenant : tenants) {
+            if (dataSources.size() <= maxOpen) {
+                return;
+            }
+            TenantDataSource dataSource = dataSources.get(tenant);
+            if (tenant.equals(opened) || Objects.isNull(dataSource) || !dataSource.isOpened() || !dataSource.closeIfNotLeased()) {
+                continue;
+            }
+            synchronized (recentlyUsed) {
+                dataSources.remove(tenant);
+                recentlyUsed.remove(tenant);
+            }
+            dataSource.await().close();
+            eventPublisher.publishEvent(new TenantClosedEvent(tenant));
+        }
+    }
+
+    private HikariDataSource open(String tenant) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("tenant-" + tenant);
+        config.setJdbcUrl(String.format(urlPattern, tenant));
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(0);
+        HikariDataSource dataSource = new HikariDataSource(config);
+        try {
+            updateSchema(dataSource);
+        } catch (RuntimeException e) {
+            dataSource.close();
+            throw e;
+        }
+        return dataSource;
+    }
+
+    private void updateSchema(DataSource dataSource) {
+        StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DATASOURCE, dataSource)
+                .applySetting(AvailableSettings.DIALECT, metadata.getDatabase().getDialect())
+                .build();
+        try {
+            new SchemaUpdate()
+                    .setHaltOnError(true)
+                    .execute(EnumSet.of(TargetType.DATABASE), metadata, serviceRegistry);
+        } finally {
+            StandardServiceRegistryBuilder.destroy(serviceRegistry);
+        }
+    }
+}
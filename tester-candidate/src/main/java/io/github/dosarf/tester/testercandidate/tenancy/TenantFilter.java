@@ -0,0 +1,93 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Tells the tenant of a request: /tenant/<TENANT>/issue/42 is /issue/42 of the tenant, just as
+// /issue/42 with the tenancy.header (X-Tenant) header. The prefix is taken for a part of the
+// context path, so links of the responses (Location, Link) stay within the tenant; links to other
+// tenants are to start from the context path of the service (see contextPath).
+public class TenantFilter extends OncePerRequestFilter {
+
+    public static final String PATH_PREFIX = "/tenant/";
+    public static final String CONTEXT_PATH = TenantFilter.class.getName() + ".contextPath";
+
+    private static final Pattern PREFIXED_PATH = Pattern.compile("^" + PATH_PREFIX + "([^/]+)(/.*)?$");
+
+    private static class PrefixedRequest extends HttpServletRequestWrapper {
+        private final String contextPath;
+        private final String servletPath;
+
+        PrefixedRequest(HttpServletRequest request, String contextPath, String servletPath) {
+            super(request);
+            this.contextPath = contextPath;
+            this.servletPath = servletPath;
+        }
+
+        @Override
+        public String getContextPath() {
+            return contextPath;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return null;
+        }
+    }
+
+    private final String header;
+
+    public TenantFilter(String header) {
+        this.header = header;
+    }
+
+    // of the service, without the prefix of the tenant the request came through
+    public static String contextPath(HttpServletRequest request) {
+        return Objects.toString(request.getAttribute(CONTEXT_PATH), request.getContextPath());
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String contextPath = request.getContextPath();
+        Matcher matcher = PREFIXED_PATH.matcher(request.getRequestURI().substring(contextPath.length()));
+
+        String tenant;
+        HttpServletRequest tenantRequest;
+        if (matcher.matches()) {
+            tenant = matcher.group(1);
+            tenantRequest = new PrefixedRequest(
+                    request,
+                    contextPath + PATH_PREFIX + tenant,
+                    Objects.toString(matcher.group(2), "/"));
+        } else {
+            tenant = Objects.toString(request.getHeader(header), Tenants.DEFAULT);
+            tenantRequest = request;
+        }
+        if (!Tenants.isValid(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "invalid tenant");
+            return;
+        }
+
+        request.setAttribute(Tenants.ATTRIBUTE, tenant);
+        request.setAttribute(CONTEXT_PATH, contextPath);
+        filterChain.doFilter(tenantRequest, response);
+    }
+}
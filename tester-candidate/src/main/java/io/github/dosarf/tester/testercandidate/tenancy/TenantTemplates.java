@@ -0,0 +1,182 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+// A template (tenancy.template) to create tenant databases from, users and issues included: a
+// snapshot of a database (online, with BACKUP), compacted. A tenant database is created by copying
+// the template file, no statement run, in the time of copying a file of its size. Snapshots are
+// taken of a running tenant (see AdminController), or, with the service down, with
+//   ./gradlew templateSnapshot -Psource=<JDBC URL> -Ptemplate=<FILE>
+// (see TemplateSnapshotTool)
+public class TenantTemplates {
+
+    private static final String H2_FILE_URL = "jdbc:h2:file:";
+    private static final String H2_URL = "jdbc:h2:";
+    private static final String MV_DB = ".mv.db";
+
+    public static class Exc extends Exception {
+
+        public Exc(Throwable t, String format, Object ... args) {
+            super(String.format(format, args), t);
+        }
+    }
+
+    public static class NoTemplate extends Exc {
+
+        public NoTemplate(Throwable t, String format, Object ... args) {
+            super(t, format, args);
+        }
+    }
+
+    public static class Conflict extends Exc {
+
+        public Conflict(Throwable t, String format, Object ... args) {
+            super(t, format, args);
+        }
+    }
+
+    private final Path template;
+    private final String urlPattern;
+    private final String username;
+    private final String password;
+    private final TenantDataSources tenantDataSources;
+
+    public TenantTemplates(
+            String template,
+            String urlPattern,
+            String username,
+            String password,
+            TenantDataSources tenantDataSources) {
+        this.template = path(template);
+        this.urlPattern = urlPattern;
+        this.username = username;
+        this.password = password;
+        this.tenantDataSources = tenantDataSources;
+    }
+
+    public Path getTemplate() {
+        return template;
+    }
+
+    // of the database of the current tenant, replacing the template taken before
+    public long snapshot() throws Exc {
+        try (Connection connection = tenantDataSources.getConnection(Tenants.current())) {
+            return snapshot(connection, template, username, password);
+        } catch (SQLException e) {
+            throw new Exc(e, "can't connect to the database of %s", Tenants.current());
+        }
+    }
+
+    // the database of the tenant, a copy of the template, before it is first used
+    public void provision(String tenant) throws Exc {
+        if (!Files.isRegularFile(template)) {
+            throw new NoTemplate(null, "no template: %s", template);
+        }
+        if (Tenants.DEFAULT.equals(tenant) || tenantDataSources.isOpen(tenant)) {
+            throw new Conflict(null, "in use: %s", tenant);
+        }
+        Path database = databaseFile(tenant);
+        if (Files.exists(database)) {
+            throw new Conflict(null, "exists already: %s", tenant);
+        }
+
+        try {
+            Files.createDirectories(database.toAbsolutePath().getParent());
+            Path copy = Files.createTempFile(database.toAbsolutePath().getParent(), tenant, ".tmp");
+            try {
+                Files.copy(template, copy, StandardCopyOption.REPLACE_EXISTING);
+                // never over a database created in the meantime
+                Files.move(copy, database);
+            } finally {
+                Files.deleteIfExists(copy);
+            }
+        } catch (FileAlreadyExistsException e) {
+            throw new Conflict(e, "exists already: %s", tenant);
+        } catch (IOException e) {
+            throw new Exc(e, "can't copy %s to %s", template, database);
+        }
+    }
+
+    // the file of the database of the tenant, for file URLs (with or without "file:") only
+    Path databaseFile(String tenant) throws Exc {
+        String url = String.format(urlPattern, tenant);
+        String location;
+        if (url.startsWith(H2_FILE_URL)) {
+            location = url.substring(H2_FILE_URL.length());
+        } else if (url.startsWith(H2_URL) && !url.matches("jdbc:h2:\\w{2,}:.*")) {
+            location = url.substring(H2_URL.length());
+        } else {
+            throw new Exc(null, "not a file database: %s", url);
+        }
+        return path(location.split(";", 2)[0] + MV_DB);
+    }
+
+    // BACKUP copies the file as it is, the copy is compacted once restored
+    static long snapshot(Connection connection, Path template, String username, String password) throws Exc {
+        Path directory = template.toAbsolutePath().getParent();
+        String name = String.format("%s-%d", template.getFileName(), System.nanoTime());
+        Path backup = directory.resolve(name + ".zip");
+        Path restored = directory.resolve(name + MV_DB);
+        try {
+            Files.createDirectories(directory);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(String.format("BACKUP TO '%s'", backup.toString().replace("'", "''")));
+            }
+            restore(backup, restored);
+            try (Connection restoredConnection = DriverManager.getConnection(
+                    H2_FILE_URL + directory.resolve(name) + ";IFEXISTS=TRUE",
+                    username,
+                    password);
+                 Statement statement = restoredConnection.createStatement()) {
+                statement.execute("SHUTDOWN COMPACT");
+            }
+            Files.move(restored, template, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return Files.size(template);
+        } catch (SQLException | IOException e) {
+            throw new Exc(e, "can't take a snapshot to %s", template);
+        } finally {
+            deleteQuietly(backup);
+            deleteQuietly(restored);
+        }
+    }
+
+    private static void restore(Path backup, Path restored) throws IOException {
+        try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(backup))) {
+            ZipEntry entry;
+            while (Objects.nonNull(entry = zip.getNextEntry())) {
+                if (entry.getName().endsWith(MV_DB)) {
+                    Files.copy(zip, restored, StandardCopyOption.REPLACE_EXISTING);
+                    return;
+                }
+            }
+        }
+        throw new IOException("no database in " + backup);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // left behind, named after the template
+        }
+    }
+
+    // "~" for the home directory
+    static Path path(String location) {
+        return location.startsWith("~")
+                ? Paths.get(System.getProperty("user.home") + location.substring(1))
+                : Paths.get(location);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+// The tenant of the request at hand (see TenantFilter), the default one (the database of
+// spring.datasource.*) outside requests, and for requests naming no tenant.
+public class Tenants {
+
+    public static final String DEFAULT = "default";
+    public static final String ATTRIBUTE = Tenants.class.getName() + ".tenant";
+
+    // names end up in file names
+    private static final Pattern NAME = Pattern.compile("[a-z0-9][a-z0-9_-]{0,62}");
+
+    private Tenants() {
+    }
+
+    // of the request itself, the request attributes of Spring are no longer active on async threads
+    public static String current() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        Object tenant = requestAttributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) requestAttributes).getRequest().getAttribute(ATTRIBUTE)
+                : null;
+        return Objects.isNull(tenant) ? DEFAULT : (String) tenant;
+    }
+
+    public static boolean isValid(String tenant) {
+        return Objects.nonNull(tenant) && NAME.matcher(tenant).matches();
+    }
+}
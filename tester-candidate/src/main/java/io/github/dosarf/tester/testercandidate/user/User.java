@@ -1,18 +1,40 @@
 package io.github.dosarf.tester.testercandidate.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import io.github.dosarf.tester.testercandidate.persistence.PersistenceBeans;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Version;
 import java.util.Objects;
 
 // see https://spring.io/guides/gs/accessing-data-jpa/
 @Entity
+@EntityListeners(UserEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = PersistenceBeans.USER_REGION)
+@JsonSerialize(using = UserSerializer.class)
 public class User {
     @Id
     @GeneratedValue(strategy= GenerationType.AUTO, generator = "USER_SEQ")
+    @SequenceGenerator(name = "USER_SEQ", sequenceName = "USER_SEQ", allocationSize = 50)
     private Long id;
 
+    // sent as (part of) the ETag, not in the JSON; existing rows start at 0
+    @Version
+    @Column(columnDefinition = "bigint default 0 not null")
+    @JsonIgnore
+    private long version;
+
     private String firstName;
     private String lastName;
 
@@ -32,6 +54,10 @@ public class User {
         return id;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     public String getFirstName() {
         return firstName;
     }
@@ -1,8 +1,15 @@
 package io.github.dosarf.tester.testercandidate.user;
 
-import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.async.Bulkheads;
+import io.github.dosarf.tester.testercandidate.etag.ETags;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueFilter;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueKeyset;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueRepresentation;
 import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.paging.Pages;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -10,8 +17,11 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 // see https://www.baeldung.com/spring-boot-json
 @RestController
@@ -22,63 +32,137 @@ public class UserController {
     private UserService userService;
     @Autowired
     private IssueService issueService;
+    @Autowired
+    private Pages pages;
+    @Autowired
+    private Bulkheads bulkheads;
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> user(@PathVariable Long id) {
-
-        Optional<User> userMaybe = userService.findById(id);
-
-        return userMaybe
-                .map(user -> ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(user))
-                .orElseGet(() -> ResponseEntity
-                        .status(HttpStatus.NOT_FOUND)
-                        .build());
+    public CompletableFuture<ResponseEntity<User>> user(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.supply(Bulkheads.Family.USERS, () -> {
+            if (Objects.nonNull(ifNoneMatch)) {
+                Optional<String> etagMaybe = userService.findVersionById(id)
+                        .map(version -> UserVersion.etag(Stream.of(version)));
+                if (etagMaybe.isPresent() && ETags.isNotModified(ifNoneMatch, etagMaybe.get())) {
+                    return ETags.notModified(etagMaybe.get());
+                }
+            }
+
+            Optional<User> userMaybe = userService.findById(id);
+
+            return userMaybe
+                    .map(user -> ResponseEntity
+                            .status(HttpStatus.OK)
+                            .eTag(UserVersion.etag(Stream.of(UserVersion.of(user))))
+                            .body(user))
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        });
     }
 
     @PostMapping("/")
-    public ResponseEntity<User> create(@RequestBody User user) {
-        User copy = new User(user.getFirstName(), user.getLastName());
-        User persisted = userService.save(copy);
-
-        if (Objects.isNull(persisted)) {
-            return ResponseEntity.notFound().build();
-        } else {
-            URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
-                    .path("/{id}")
-                    .buildAndExpand(persisted.getId())
-                    .toUri();
-
-            return ResponseEntity
-                    .created(uri)
-                    .body(persisted);
-        }
+    public CompletableFuture<ResponseEntity<User>> create(@RequestBody User user) {
+        return bulkheads.supply(Bulkheads.Family.USERS, () -> {
+            User copy = new User(user.getFirstName(), user.getLastName());
+            User persisted = userService.save(copy);
+
+            if (Objects.isNull(persisted)) {
+                return ResponseEntity.notFound().build();
+            } else {
+                URI uri = ServletUriComponentsBuilder.fromCurrentRequest()
+                        .path("/{id}")
+                        .buildAndExpand(persisted.getId())
+                        .toUri();
+
+                return ResponseEntity
+                        .created(uri)
+                        .body(persisted);
+            }
+        });
     }
 
     @GetMapping(value = "/", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Iterable<User>> listAll() {
-        Iterable<User> users = userService.findAll();
-
-        return ResponseEntity
-                .ok(users);
+    public CompletableFuture<ResponseEntity<List<User>>> listAll(
+            @RequestParam(required = false) Integer size,
+            @RequestParam(name = Pages.CURSOR_PARAM, required = false) String cursor,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.supply(Bulkheads.Family.USERS, () -> {
+            try {
+                int pageSize = pages.sizeOrAll(size, cursor);
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                if (Objects.nonNull(ifNoneMatch)) {
+                    List<UserVersion> versions = Objects.isNull(cursor)
+                            ? userService.findVersions(limit)
+                            : userService.findVersionsByIdGreaterThan(Pages.idCursor(cursor), limit);
+                    String etag = UserVersion.etag(versions.stream());
+                    if (ETags.isNotModified(ifNoneMatch, etag)) {
+                        return ETags.notModified(etag);
+                    }
+                }
+                List<User> users = Objects.isNull(cursor)
+                        ? userService.findAllByOrderByIdAsc(limit)
+                        : userService.findByIdGreaterThanOrderByIdAsc(Pages.idCursor(cursor), limit);
+
+                return pages.ok(
+                        users,
+                        pageSize,
+                        user -> String.valueOf(user.getId()),
+                        UserVersion.etag(users.stream().map(UserVersion::of)));
+            } catch (Pages.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+        });
     }
 
 
-    @GetMapping(value = "/{id}/issue", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Iterable<Issue>> listIssuesCreatedBy(@PathVariable Long id) {
-        Optional<User> userMaybe = userService.findById(id);
-
-        return userMaybe
-                .map(creator -> issueService.findByCreator(creator))
-                .map(issues -> (Iterable<Issue>)issues)
-                .map(issues -> ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(issues))
-                .orElseGet(() -> ResponseEntity
-                        .status(HttpStatus.NOT_FOUND)
-                        .build());
+    // IssueRepresentation.COMPACT by Accept or view=compact
+    @GetMapping(value = "/{id}/issue", produces = { MediaType.APPLICATION_JSON_VALUE, IssueRepresentation.APPLICATION_COMPACT_JSON_VALUE })
+    public CompletableFuture<ResponseEntity<?>> listIssuesCreatedBy(
+            @PathVariable Long id,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(name = Pages.CURSOR_PARAM, required = false) String cursor,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String priority,
+            @RequestParam(name = IssueRepresentation.VIEW_PARAM, required = false) String view,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return bulkheads.supply(Bulkheads.Family.USERS, () -> {
+            IssueRepresentation representation = IssueRepresentation.of(view, accept);
+            int pageSize;
+            IssueKeyset keyset;
+            IssueFilter filter;
+            try {
+                pageSize = pages.sizeOrAll(size, cursor);
+                keyset = IssueKeyset.parse(IssueKeyset.Sort.parse(sort), cursor);
+                filter = IssueFilter.parse(type, priority, id);
+            } catch (Pages.Exc e) {
+                return ResponseEntity
+                        .badRequest()
+                        .build();
+            }
+
+            Optional<User> userMaybe = userService.findById(id);
+            if (userMaybe.isPresent() && Objects.nonNull(ifNoneMatch)) {
+                String etag = representation.etag(issueService.findPageVersions(filter, keyset, pageSize + 1).stream());
+                if (ETags.isNotModified(ifNoneMatch, etag)) {
+                    return representation.notModified(etag);
+                }
+            }
+
+            return userMaybe
+                    .map(creator -> issueService.findPage(filter, keyset, pageSize + 1))
+                    .<ResponseEntity<?>>map(issues -> representation.ok(pages, issues, pageSize, keyset))
+                    .orElseGet(() -> ResponseEntity
+                            .status(HttpStatus.NOT_FOUND)
+                            .build());
+        });
     }
 
 }
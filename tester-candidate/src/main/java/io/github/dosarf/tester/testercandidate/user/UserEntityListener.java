@@ -0,0 +1,30 @@
+package io.github.dosarf.tester.testercandidate.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+// Created by Hibernate through Spring (see SpringBeanContainer), so it can be autowired.
+public class UserEntityListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void created(User user) {
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.CREATED, user));
+    }
+
+    @PostUpdate
+    public void updated(User user) {
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.UPDATED, user));
+    }
+
+    @PostRemove
+    public void deleted(User user) {
+        eventPublisher.publishEvent(new UserEvent(UserEvent.Type.DELETED, user));
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.dosarf.tester.testercandidate.user;
+
+// Published whenever a user is created, updated or deleted, in the transaction doing so:
+// listen with @TransactionalEventListener to hear about committed changes only.
+public class UserEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final User user;
+
+    public UserEvent(Type type, User user) {
+        this.type = type;
+        this.user = user;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    @Override
+    public String toString() {
+        return "UserEvent{" +
+                "type=" + type +
+                ", user=" + user +
+                '}';
+    }
+}
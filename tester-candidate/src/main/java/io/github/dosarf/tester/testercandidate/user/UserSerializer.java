@@ -0,0 +1,33 @@
+package io.github.dosarf.tester.testercandidate.user;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Objects;
+
+// Writes the id and the names only, whether given the user or a Hibernate proxy of it.
+public class UserSerializer extends StdSerializer<User> {
+
+    public UserSerializer() {
+        super(User.class);
+    }
+
+    @Override
+    public void serialize(User user, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject();
+        writeId(generator, "id", user.getId());
+        generator.writeStringField("firstName", user.getFirstName());
+        generator.writeStringField("lastName", user.getLastName());
+        generator.writeEndObject();
+    }
+
+    public static void writeId(JsonGenerator generator, String name, Long id) throws IOException {
+        if (Objects.isNull(id)) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, id);
+        }
+    }
+}
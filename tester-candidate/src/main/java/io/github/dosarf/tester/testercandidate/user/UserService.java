@@ -1,8 +1,45 @@
 package io.github.dosarf.tester.testercandidate.user;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 // see https://spring.io/guides/gs/accessing-data-jpa/
 public interface UserService extends CrudRepository<User, Long> {
+    String STREAM_FETCH_SIZE = "500";
+
+    // keyset pagination, the pageable only limits the number of users
+    List<User> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select new io.github.dosarf.tester.testercandidate.user.UserVersion(u.id, u.version) from User u where u.id = :id")
+    Optional<UserVersion> findVersionById(@Param("id") Long id);
+
+    // the same pages as above, as versions only
+    @Query("select new io.github.dosarf.tester.testercandidate.user.UserVersion(u.id, u.version) from User u order by u.id")
+    List<UserVersion> findVersions(Pageable pageable);
+
+    @Query("select new io.github.dosarf.tester.testercandidate.user.UserVersion(u.id, u.version) from User u where u.id > :id order by u.id")
+    List<UserVersion> findVersionsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
 
+    // all users, in id order, read as they are consumed (bypassing the second-level cache);
+    // must be consumed (and closed) in a transaction
+    @Query("select u from User u order by u.id")
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE") })
+    Stream<User> streamAll();
 }
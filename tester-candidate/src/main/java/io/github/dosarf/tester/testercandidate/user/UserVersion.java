@@ -0,0 +1,29 @@
+package io.github.dosarf.tester.testercandidate.user;
+
+import io.github.dosarf.tester.testercandidate.etag.ETags;
+
+import java.util.stream.Stream;
+
+public class UserVersion {
+
+    private final Long id;
+    private final Long version;
+
+    public UserVersion(Long id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    public static UserVersion of(User user) {
+        return new UserVersion(user.getId(), user.getVersion());
+    }
+
+    // of a user, or of a page of users (as fetched, with the one past the page)
+    public static String etag(Stream<UserVersion> versions) {
+        return ETags.of(versions.map(UserVersion::stamp));
+    }
+
+    private String stamp() {
+        return id + ":" + version;
+    }
+}
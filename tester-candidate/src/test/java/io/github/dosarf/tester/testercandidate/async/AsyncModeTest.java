@@ -0,0 +1,83 @@
+package io.github.dosarf.tester.testercandidate.async;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.calculator.CalculatorController;
+import io.github.dosarf.tester.testercandidate.user.User;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:async-mode-test",
+        "async.enabled=true" })
+@AutoConfigureMockMvc
+public class AsyncModeTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Bulkheads bulkheads;
+
+    @Test
+    public void answers_with_links_to_the_request() throws Exception {
+        assertThat(bulkheads.isEnabled()).isTrue();
+
+        String location = perform(MockMvcRequestBuilders.post("/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new User("Async", "User"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+        assertThat(location).startsWith("http://localhost/user/");
+
+        perform(MockMvcRequestBuilders.get(location).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG))
+                .andExpect(MockMvcResultMatchers.jsonPath("firstName", Matchers.is("Async")));
+        perform(MockMvcRequestBuilders.get("/user/").param("size", "1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(1)));
+    }
+
+    @Test
+    public void streams_responses() throws Exception {
+        String ndjson = "{\"operator\":\"ADD\",\"operands\":[\"1\",\"2\"]}\n{\"operator\":\"ADD\",\"operands\":[\"3\",\"4\"]}\n";
+
+        String response = perform(MockMvcRequestBuilders.post("/calculator/batch").accept(CalculatorController.APPLICATION_NDJSON).contentType(CalculatorController.APPLICATION_NDJSON).content(ndjson))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(response.split("\n")).hasSize(2);
+    }
+
+    @Test
+    public void renders_views() throws Exception {
+        perform(MockMvcRequestBuilders.get("/exportissues/user/-1").accept(MediaType.TEXT_HTML))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.view().name("exportIssuesUserNotFound"));
+    }
+
+    // completed before the handler returned, if quick enough, answered right away then
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted()
+                ? mvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                : actions;
+    }
+}
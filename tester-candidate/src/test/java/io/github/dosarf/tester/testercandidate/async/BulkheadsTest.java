@@ -0,0 +1,93 @@
+package io.github.dosarf.tester.testercandidate.async;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Bulkheads bulkheads;
+
+    @AfterEach
+    void destroy() {
+        bulkheads.destroy();
+    }
+
+    @Test
+    void runs_tasks_right_away_with_async_mode_off() throws Exception {
+        bulkheads = new Bulkheads(false, false, limits(1, 0), meterRegistry);
+
+        CompletableFuture<String> future = bulkheads.supply(Bulkheads.Family.ISSUES, () -> Thread.currentThread().getName());
+
+        assertThat(future).isDone();
+        assertThat(future.get()).isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void runs_tasks_on_the_executor_of_their_family() throws Exception {
+        bulkheads = new Bulkheads(true, false, limits(1, 0), meterRegistry);
+
+        assertThat(bulkheads.supply(Bulkheads.Family.EXPORTS, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS))
+                .startsWith("async-exports-");
+        assertThat(bulkheads.supply(Bulkheads.Family.USERS, () -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS))
+                .startsWith("async-users-");
+    }
+
+    @Test
+    void turns_away_tasks_of_a_full_family_only() throws Exception {
+        bulkheads = new Bulkheads(true, false, limits(1, 1), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> running = bulkheads.supply(Bulkheads.Family.EXPORTS, () -> {
+            started.countDown();
+            release.await();
+            return 1;
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> queued = bulkheads.supply(Bulkheads.Family.EXPORTS, () -> 2);
+        CompletableFuture<Integer> rejected = bulkheads.supply(Bulkheads.Family.EXPORTS, () -> 3);
+
+        assertThatThrownBy(rejected::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(Bulkheads.Overload.class);
+        assertThat(meterRegistry.get("async.rejections").tag("family", "exports").counter().count()).isEqualTo(1);
+        assertThat(bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> 4).get(5, TimeUnit.SECONDS)).isEqualTo(4);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void passes_on_failures_of_the_task() {
+        bulkheads = new Bulkheads(true, false, limits(1, 0), meterRegistry);
+
+        CompletableFuture<Integer> future = bulkheads.supply(Bulkheads.Family.CALCULATOR, () -> {
+            throw new IllegalArgumentException("no such luck");
+        });
+
+        assertThatThrownBy(() -> future.get(5, TimeUnit.SECONDS))
+                .hasCauseExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("no such luck");
+    }
+
+    private static Map<Bulkheads.Family, Bulkheads.Limits> limits(int threads, int queueCapacity) {
+        Map<Bulkheads.Family, Bulkheads.Limits> limits = new EnumMap<>(Bulkheads.Family.class);
+        for (Bulkheads.Family family : Bulkheads.Family.values()) {
+            limits.put(family, new Bulkheads.Limits(threads, queueCapacity));
+        }
+        return limits;
+    }
+}
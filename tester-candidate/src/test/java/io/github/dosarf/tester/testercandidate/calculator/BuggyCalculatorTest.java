@@ -0,0 +1,109 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BuggyCalculatorTest {
+
+    static final String[] OPERANDS = {
+            "0", "-0", "+0", "1", "-1", "2", "3", "-3", "7", "0.5", "-0.5", "2.0", "1.", ".5",
+            "1e3", "1E3", "1e-3", "10e-1", "1.5e1", "1e10", "1e400",
+            "46341", "65536", "2147483647", "-2147483647", "2147483648", "-2147483648",
+            "9007199254740993", "0.1", "0.2",
+            // not plain decimal literals
+            "0x10", "010", "1 + 1", "a", "b", "Infinity", "--1", ""
+    };
+
+    private ScriptEngine scriptEngine;
+    private BuggyCalculator buggyCalculator;
+
+    static BuggyCalculator buggyCalculator() {
+        return buggyCalculator(10000);
+    }
+
+    static BuggyCalculator buggyCalculator(long timeoutMillis) {
+        BuggyCalculator buggyCalculator = new BuggyCalculator();
+        ReflectionTestUtils.setField(
+                buggyCalculator,
+                "scriptEnginePool",
+                new ScriptEnginePool(
+                        () -> new ScriptEngineManager().getEngineByName("JavaScript"),
+                        1,
+                        1000,
+                        new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(
+                buggyCalculator,
+                "evaluationExecutor",
+                new EvaluationExecutor(1, 10, timeoutMillis, true, new SimpleMeterRegistry()));
+        return buggyCalculator;
+    }
+
+    @BeforeEach
+    void setUp() {
+        scriptEngine = new ScriptEngineManager().getEngineByName("JavaScript");
+        buggyCalculator = buggyCalculator();
+    }
+
+    @Test
+    void precompiled_scripts_give_the_same_results_as_spliced_expressions() {
+        for (CalculationRequest.Operator operator : CalculationRequest.Operator.values()) {
+            for (String a : OPERANDS) {
+                for (String b : OPERANDS) {
+                    String[] operands = { a, b };
+                    assertThat(outcome(operator, operands))
+                            .as("%s %s %s", operator, a, b)
+                            .isEqualTo(splicedOutcome(operator, operands));
+                }
+            }
+        }
+    }
+
+    @Test
+    void never_ending_script_times_out_without_losing_the_only_engine() throws Calculator.Exc {
+        BuggyCalculator buggyCalculator = buggyCalculator(200);
+        String[] operands = { "(function() { while (true) {} })()", "1" };
+
+        assertThatThrownBy(() -> buggyCalculator.calculate(CalculationRequest.Operator.ADD, operands))
+                .isInstanceOf(Calculator.Timeout.class)
+                .hasMessage("calculation timed out after 200 ms");
+        assertThat(buggyCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { "1", "2" }))
+                .isEqualTo(3);
+    }
+
+    private String outcome(CalculationRequest.Operator operator, String[] operands) {
+        try {
+            Number result = buggyCalculator.calculate(operator, operands);
+            return result.getClass().getSimpleName() + " " + result;
+        } catch (Calculator.Exc e) {
+            return "Exc";
+        }
+    }
+
+    // what the calculator used to evaluate, a fresh expression for every calculation
+    private String splicedOutcome(CalculationRequest.Operator operator, String[] operands) {
+        String[] templates = {
+                "%1$s + %2$s", "%2$s - %1$s", "%1$s * %2$s", "%2$s / %1$s",
+                "Math.pow(%1$s, %3$s)", "Math.pow(%1$s, 2)", "Math.sqrt(%4$s)"
+        };
+        String expression = String.format(
+                templates[operator.ordinal()],
+                operands[0],
+                operands[1],
+                operands[1].replace("-", ""),
+                operands[0].replace("-", ""));
+        try {
+            Number result = (Number)scriptEngine.eval(expression);
+            return result.getClass().getSimpleName() + " " + result;
+        } catch (Exception e) {
+            return "Exc";
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.script.ScriptException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingCalculatorTest {
+
+    @Mock
+    private Calculator calculator;
+
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private CachingCalculator cachingCalculator;
+
+    @BeforeEach
+    void setUp() {
+        cachingCalculator = new CachingCalculator(calculator, 100, 60, meterRegistry);
+    }
+
+    @Test
+    void calculates_same_operands_only_once() throws Exception {
+        when(calculator.calculate(CalculationRequest.Operator.ADD, new String[] { "2", "3" })).thenReturn(5);
+
+        assertThat(cachingCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { "2", "3" })).isEqualTo(5);
+        assertThat(cachingCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { " 2", "3 " })).isEqualTo(5);
+
+        verify(calculator, times(1)).calculate(any(), any());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "calculator").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void remembers_failures_of_malformed_operands() throws Exception {
+        when(calculator.calculate(CalculationRequest.Operator.ADD, new String[] { "a", "3" }))
+                .thenThrow(new Calculator.Exc(new ScriptException("a is not defined"), "a is not defined"));
+
+        for (int i = 0; i < 2; ++i) {
+            assertThatThrownBy(() -> cachingCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { "a", "3" }))
+                    .isInstanceOf(Calculator.Exc.class)
+                    .hasMessage("a is not defined");
+        }
+
+        verify(calculator, times(1)).calculate(any(), any());
+    }
+
+    @Test
+    void does_not_remember_other_failures() throws Exception {
+        when(calculator.calculate(CalculationRequest.Operator.ADD, new String[] { "2", "3" }))
+                .thenThrow(new Calculator.Exc(null, "no script engine available in %d ms", 1000))
+                .thenReturn(5);
+
+        assertThatThrownBy(() -> cachingCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { "2", "3" }))
+                .isInstanceOf(Calculator.Exc.class);
+        assertThat(cachingCalculator.calculate(CalculationRequest.Operator.ADD, new String[] { "2", "3" })).isEqualTo(5);
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CalculationResponseSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper beanMapper = new ObjectMapper().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+        @Override
+        public Object findSerializer(Annotated annotated) {
+            return null;
+        }
+    });
+
+    @Test
+    public void writes_responses_as_bean_serialization_would() throws Exception {
+        CalculationResponse[] responses = {
+                CalculationResponse.success(new CalculationRequest(CalculationRequest.Operator.ADD, "1", "2"), 3),
+                CalculationResponse.failure(new CalculationRequest(CalculationRequest.Operator.SQUARE_ROOT, "\"-1\""), "NaN"),
+                new CalculationResponse(new CalculationRequest(), null),
+                new CalculationResponse()
+        };
+
+        for (CalculationResponse response : responses) {
+            assertThat(objectMapper.writeValueAsString(response)).isEqualTo(beanMapper.writeValueAsString(response));
+        }
+    }
+}
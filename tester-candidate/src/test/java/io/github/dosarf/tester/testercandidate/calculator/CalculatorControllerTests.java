@@ -3,6 +3,7 @@ package io.github.dosarf.tester.testercandidate.calculator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.dosarf.tester.testercandidate.calculator.CalculationRequest;
 import io.github.dosarf.tester.testercandidate.calculator.CalculationResponse;
+import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -12,6 +13,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -36,4 +40,65 @@ class CalculatorControllerTests {
 				.andExpect(MockMvcResultMatchers.status().isOk())
 				.andExpect(MockMvcResultMatchers.content().json(responseStr));
 	}
+
+	@Test
+	public void getBatchResultsAsJsonArray() throws Exception {
+		String requestStr = "[" +
+				"{\"operator\":\"ADD\",\"operands\":[\"2\",\"3\"]}," +
+				"{\"operator\":\"ADD\",\"operands\":[\"2\"]}," +
+				"{\"operator\":\"MULTIPLY\",\"operands\":[\"2\",\"3\"]}" +
+				"]";
+
+		mvc.perform(MockMvcRequestBuilders.post("/calculator/batch").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(requestStr))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("[0].result", Matchers.is("5")))
+				.andExpect(MockMvcResultMatchers.jsonPath("[1].result", Matchers.startsWith("ERROR: ")))
+				.andExpect(MockMvcResultMatchers.jsonPath("[2].result", Matchers.is("6")));
+	}
+
+	@Test
+	public void getBatchResultsAsNdjson() throws Exception {
+		String requestStr =
+				"{\"operator\":\"SUBTRACT\",\"operands\":[\"2\",\"3\"]}\n" +
+				"{\"operator\":\"SQUARE\",\"operands\":[\"3\"]}\n" +
+				"{\"operator\":";
+
+		mvc.perform(MockMvcRequestBuilders.post("/calculator/batch").accept(CalculatorController.APPLICATION_NDJSON).contentType(CalculatorController.APPLICATION_NDJSON).content(requestStr))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().contentType(CalculatorController.APPLICATION_NDJSON))
+				.andExpect(result -> {
+					String[] lines = result.getResponse().getContentAsString().split("\n");
+					assertThat(lines).hasSize(3);
+					assertThat(objectMapper.readValue(lines[0], CalculationResponse.class).result).isEqualTo("1");
+					assertThat(objectMapper.readValue(lines[1], CalculationResponse.class).result).isEqualTo("9.0");
+					assertThat(objectMapper.readValue(lines[2], CalculationResponse.class).result).startsWith("ERROR: ");
+				});
+	}
+
+	@Test
+	public void getColumnResult() throws Exception {
+		ColumnCalculationRequest request = new ColumnCalculationRequest(
+				CalculationRequest.Operator.SUBTRACT,
+				new double[] { 1.0, 2.0, 3.0 },
+				new double[] { 10.0, 20.0, 30.0 });
+		String requestStr = objectMapper.writeValueAsString(request);
+
+		mvc.perform(MockMvcRequestBuilders.post("/calculator/column").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(requestStr))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.content().json("{\"operator\":\"SUBTRACT\",\"result\":[9.0,18.0,27.0]}"));
+	}
+
+	@Test
+	public void getBinaryColumnResult() throws Exception {
+		ByteBuffer requestBuffer = ByteBuffer.allocate(4 * Double.BYTES);
+		requestBuffer.asDoubleBuffer().put(new double[] { 1.0, 2.0, 10.0, 20.0 });
+
+		mvc.perform(MockMvcRequestBuilders.post("/calculator/column").param("operator", "ADD").accept(MediaType.APPLICATION_OCTET_STREAM).contentType(MediaType.APPLICATION_OCTET_STREAM).content(requestBuffer.array()))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(result -> {
+					double[] resultColumn = new double[2];
+					ByteBuffer.wrap(result.getResponse().getContentAsByteArray()).asDoubleBuffer().get(resultColumn);
+					assertThat(resultColumn).containsExactly(11.0, 22.0);
+				});
+	}
 }
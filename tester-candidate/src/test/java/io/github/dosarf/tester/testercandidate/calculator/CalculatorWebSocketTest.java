@@ -0,0 +1,67 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "calculator.websocket.max-sessions=1")
+public class CalculatorWebSocketTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void calculates_frames_and_limits_connections() throws Exception {
+        BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        WebSocketSession session = connect(new TextWebSocketHandler() {
+            @Override
+            protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+                responses.add(message.getPayload());
+            }
+        });
+
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(
+                new CalculationRequest(CalculationRequest.Operator.ADD, "2", "3"))));
+        session.sendMessage(new TextMessage("{\"operator\":"));
+
+        assertThat(objectMapper.readValue(responses.poll(10, TimeUnit.SECONDS), CalculationResponse.class).result)
+                .isEqualTo("5");
+        assertThat(objectMapper.readValue(responses.poll(10, TimeUnit.SECONDS), CalculationResponse.class).result)
+                .startsWith("ERROR: ");
+
+        CompletableFuture<CloseStatus> rejected = new CompletableFuture<>();
+        connect(new TextWebSocketHandler() {
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+                rejected.complete(status);
+            }
+        });
+        assertThat(rejected.get(10, TimeUnit.SECONDS).getCode()).isEqualTo(CloseStatus.POLICY_VIOLATION.getCode());
+
+        session.close();
+    }
+
+    private WebSocketSession connect(TextWebSocketHandler handler) throws Exception {
+        return new StandardWebSocketClient()
+                .doHandshake(handler, "ws://localhost:" + port + "/calculator/ws")
+                .get(10, TimeUnit.SECONDS);
+    }
+}
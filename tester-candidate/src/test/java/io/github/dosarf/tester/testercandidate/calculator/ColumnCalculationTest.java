@@ -0,0 +1,68 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ColumnCalculationTest {
+
+    private static final double[] VALUES = {
+            0.0, -0.0, 1.0, -1.0, 2.0, -3.0, 0.5, -0.5, 1e-3, -1e-3, 1e-4, -1e-4, 2.5e-7, -2.5e-7,
+            1e7, -1e7, 1e21, 46341, 2147483647, 2147483648.0, 0.1, 0.2,
+            Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NaN
+    };
+
+    private final Calculator calculator = new NativeCalculator(BuggyCalculatorTest.buggyCalculator());
+
+    @Test
+    void gives_the_same_results_as_calculating_one_by_one() throws Exception {
+        double[] a = new double[VALUES.length * VALUES.length];
+        double[] b = new double[VALUES.length * VALUES.length];
+        for (int i = 0; i < VALUES.length; ++i) {
+            for (int j = 0; j < VALUES.length; ++j) {
+                a[i * VALUES.length + j] = VALUES[i];
+                b[i * VALUES.length + j] = VALUES[j];
+            }
+        }
+
+        for (CalculationRequest.Operator operator : CalculationRequest.Operator.values()) {
+            double[] result = calculator.calculateColumns(operator, ColumnCalculation.operandCount(operator) == 1
+                    ? new double[][] { a }
+                    : new double[][] { a, b });
+
+            for (int i = 0; i < a.length; ++i) {
+                Number expected = calculator.calculate(
+                        operator,
+                        new String[] { String.valueOf(a[i]), String.valueOf(b[i]) });
+                // boxed, so that negative zero is told apart from zero
+                assertThat(Double.valueOf(result[i]))
+                        .as("%s %s %s", operator, a[i], b[i])
+                        .isEqualTo(Double.valueOf(expected.doubleValue()));
+            }
+        }
+    }
+
+    @Test
+    void splitting_up_gives_the_same_results() throws Exception {
+        Random random = new Random(42);
+        double[] a = random.doubles(100_000, -1000, 1000).toArray();
+        double[] b = random.doubles(100_000, -1000, 1000).toArray();
+
+        double[] result = calculator.calculateColumns(CalculationRequest.Operator.DIVIDE, new double[][] { a, b });
+
+        for (int i = 0; i < a.length; ++i) {
+            assertThat(result[i]).isEqualTo(b[i] / a[i]);
+        }
+    }
+
+    @Test
+    void rejects_wrong_operand_columns() {
+        assertThatThrownBy(() -> calculator.calculateColumns(CalculationRequest.Operator.ADD, new double[][] { { 1.0 } }))
+                .isInstanceOf(Calculator.Exc.class);
+        assertThatThrownBy(() -> calculator.calculateColumns(CalculationRequest.Operator.ADD, new double[][] { { 1.0 }, { 1.0, 2.0 } }))
+                .isInstanceOf(Calculator.Exc.class);
+    }
+}
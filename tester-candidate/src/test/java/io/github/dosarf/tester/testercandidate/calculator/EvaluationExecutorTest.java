@@ -0,0 +1,123 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.script.ScriptException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EvaluationExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void turns_away_calculations_once_the_queue_is_full() throws Exception {
+        EvaluationExecutor executor = new EvaluationExecutor(1, 1, 10000, false, meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> execute(executor, () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> execute(executor, () -> 2));
+        while (meterRegistry.get("calculator.evaluation.queue").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> executor.execute(() -> 3))
+                .isInstanceOf(Calculator.Overload.class);
+        assertThat(meterRegistry.get("calculator.evaluation.rejections").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo(2);
+    }
+
+    @Test
+    void passes_on_failures_of_the_calculation() {
+        EvaluationExecutor executor = new EvaluationExecutor(1, 1, 10000, false, meterRegistry);
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new Calculator.Exc(null, "no such luck");
+        }))
+                .isExactlyInstanceOf(Calculator.Exc.class)
+                .hasMessage("no such luck");
+    }
+
+    @Test
+    void times_out_calculations_taking_too_long() throws Exception {
+        // stopped only in the midst of an evaluation, not while waiting for an engine, say
+        EvaluationExecutor executor = new EvaluationExecutor(1, 1, 100, true, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            await(release);
+            finished.countDown();
+            return 1;
+        }))
+                .isInstanceOf(Calculator.Timeout.class);
+        assertThat(meterRegistry.get("calculator.evaluation.timeouts").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("calculator.evaluation.stopped").counter().count()).isEqualTo(0);
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void stops_runaway_evaluations() throws Exception {
+        EvaluationExecutor executor = new EvaluationExecutor(1, 1, 100, true, meterRegistry);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            assertThatThrownBy(() -> executor.execute(() -> {
+                try {
+                    return EvaluationExecutor.stoppable(() -> {
+                        while (running.get()) {
+                            // never ending
+                        }
+                        return 1;
+                    });
+                } catch (ScriptException e) {
+                    throw new Calculator.Exc(e, "%s", e.getMessage());
+                }
+            }))
+                    .isInstanceOf(Calculator.Timeout.class);
+
+            double stopped = meterRegistry.get("calculator.evaluation.stopped").counter().count();
+            double unstoppable = meterRegistry.get("calculator.evaluation.unstoppable").counter().count();
+            // Thread.stop unsupported from JDK 20 on
+            assertThat(stopped + unstoppable).isEqualTo(1);
+            if (stopped == 1) {
+                // its thread free again
+                assertThat(executor.execute(() -> 2)).isEqualTo(2);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private static Integer execute(EvaluationExecutor executor, EvaluationExecutor.Task<Integer> task) {
+        try {
+            return executor.execute(task);
+        } catch (Calculator.Exc e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
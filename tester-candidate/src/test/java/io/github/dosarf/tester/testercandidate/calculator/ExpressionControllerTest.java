@@ -0,0 +1,54 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ExpressionControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void register_evaluate_and_evict() throws Exception {
+        String registration = mvc.perform(MockMvcRequestBuilders.post("/calculator/expression/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content("{\"expression\":\"SQUARE_ROOT(ADD(a, MULTIPLY(b, 2)))\"}"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("variables", Matchers.contains("a", "b")))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String handle = objectMapper.readValue(registration, ExpressionHandle.class).handle;
+
+        mvc.perform(MockMvcRequestBuilders.post("/calculator/expression/" + handle).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content("{\"a\":\"1\",\"b\":\"4\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("result", Matchers.is("3.0")));
+
+        mvc.perform(MockMvcRequestBuilders.post("/calculator/expression/" + handle + "/batch").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content("[{\"a\":\"1\",\"b\":\"0\"},{\"a\":\"1\"}]"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].result", Matchers.is("1.0")))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].result", Matchers.is("ERROR: unbound variable: b")));
+
+        mvc.perform(MockMvcRequestBuilders.delete("/calculator/expression/" + handle))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mvc.perform(MockMvcRequestBuilders.post("/calculator/expression/" + handle).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content("{\"a\":\"1\",\"b\":\"4\"}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void rejects_malformed_expression() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/calculator/expression/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content("{\"expression\":\"SQUARE_ROOT(a, b)\"}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.dosarf.tester.testercandidate.calculator;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NativeCalculatorTest {
+
+    private BuggyCalculator buggyCalculator;
+    private NativeCalculator nativeCalculator;
+
+    @BeforeEach
+    void setUp() {
+        buggyCalculator = BuggyCalculatorTest.buggyCalculator();
+        nativeCalculator = new NativeCalculator(buggyCalculator);
+    }
+
+    @Test
+    void gives_the_same_results_as_script_engine() {
+        for (CalculationRequest.Operator operator : CalculationRequest.Operator.values()) {
+            for (String a : BuggyCalculatorTest.OPERANDS) {
+                for (String b : BuggyCalculatorTest.OPERANDS) {
+                    String[] operands = { a, b };
+                    assertThat(outcome(nativeCalculator, operator, operands))
+                            .as("%s %s %s", operator, a, b)
+                            .isEqualTo(outcome(buggyCalculator, operator, operands));
+                }
+            }
+        }
+    }
+
+    @Test
+    void fails_the_same_way_on_missing_operand() {
+        String[] operands = { "1" };
+
+        assertThat(outcome(nativeCalculator, CalculationRequest.Operator.ADD, operands))
+                .isEqualTo(outcome(buggyCalculator, CalculationRequest.Operator.ADD, operands));
+    }
+
+    private static String outcome(
+            Calculator calculator,
+            CalculationRequest.Operator operator,
+            String[] operands) {
+        try {
+            Number result = calculator.calculate(operator, operands);
+            return result.getClass().getSimpleName() + " " + result;
+        } catch (Calculator.Exc | RuntimeException e) {
+            return e.getClass().getSimpleName() + " " + e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.dosarf.tester.testercandidate.changefeed;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:change-feed-controller-test")
+@AutoConfigureMockMvc
+public class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+
+    @Test
+    public void sends_committed_changes() throws Exception {
+        MockHttpServletResponse response = mvc.perform(MockMvcRequestBuilders.get("/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        User creator = userService.save(new User("Change", "Feed"));
+        Issue issue = issueService.save(new Issue("fed", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        issueService.delete(issue);
+
+        String events = awaitContent(response, "\"type\":\"DELETED\"");
+        assertThat(events).contains("event:subscribed");
+        assertThat(events).contains("event:user\ndata:{\"type\":\"CREATED\",\"id\":" + creator.getId() + ",\"user\":{");
+        assertThat(events).contains("event:issue\ndata:{\"type\":\"CREATED\",\"id\":" + issue.getId() + ",\"issue\":{");
+        assertThat(events).contains("event:issue\ndata:{\"type\":\"DELETED\",\"id\":" + issue.getId() + "}");
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        for (int i = 0; i < 500; ++i) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return content;
+            }
+            Thread.sleep(10);
+        }
+        return response.getContentAsString();
+    }
+}
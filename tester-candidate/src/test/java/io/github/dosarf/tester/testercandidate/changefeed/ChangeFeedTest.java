@@ -0,0 +1,182 @@
+package io.github.dosarf.tester.testercandidate.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ChangeFeedTest {
+
+    // the events sent, as "<id> <name>", sending only once released
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new ArrayList<>();
+        private final CountDownLatch released;
+        private final CountDownLatch completed = new CountDownLatch(1);
+
+        RecordingEmitter(CountDownLatch released) {
+            this.released = released;
+        }
+
+        RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            String event = builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining());
+            String id = event.replaceAll("(?s).*id:([^\n]*)\n.*", "$1");
+            String name = event.replaceAll("(?s).*event:([^\n]*)\n.*", "$1");
+            synchronized (events) {
+                events.add(id + " " + name);
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+
+        boolean awaitCompleted() throws InterruptedException {
+            return completed.await(5, TimeUnit.SECONDS);
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            for (int i = 0; i < 500; ++i) {
+                synchronized (events) {
+                    if (events.size() >= count) {
+                        return new ArrayList<>(events);
+                    }
+                }
+                Thread.sleep(10);
+            }
+            synchronized (events) {
+                return new ArrayList<>(events);
+            }
+        }
+    }
+
+    private ChangeFeed changeFeed = changeFeed(60000);
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.destroy();
+    }
+
+    @Test
+    public void replays_what_was_missed_since_the_last_event_id() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        changeFeed.subscribe(first, null);
+        changeFeed.publish("issue", "{}");
+        changeFeed.publish("user", "{}");
+        List<String> events = first.awaitEvents(3);
+        assertThat(events).hasSize(3);
+        assertThat(events.get(0)).endsWith(" " + ChangeFeed.SUBSCRIBED);
+        String lastEventId = events.get(1).split(" ")[0];
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        changeFeed.subscribe(resumed, lastEventId);
+        changeFeed.publish("issue", "{}");
+
+        assertThat(resumed.awaitEvents(2))
+                .extracting(event -> event.split(" ")[1])
+                .containsExactly("user", "issue");
+    }
+
+    @Test
+    public void resyncs_when_too_much_was_missed() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        changeFeed.subscribe(first, null);
+        changeFeed.publish("issue", "{}");
+        String lastEventId = first.awaitEvents(2).get(1).split(" ")[0];
+        // one more than are replayed
+        for (int i = 0; i < 4; ++i) {
+            changeFeed.publish("issue", "{}");
+        }
+
+        RecordingEmitter tooLate = new RecordingEmitter();
+        changeFeed.subscribe(tooLate, lastEventId);
+        RecordingEmitter otherRun = new RecordingEmitter();
+        changeFeed.subscribe(otherRun, "0-1");
+
+        assertThat(tooLate.awaitEvents(1)).extracting(event -> event.split(" ")[1]).containsExactly(ChangeFeed.RESYNC);
+        assertThat(otherRun.awaitEvents(1)).extracting(event -> event.split(" ")[1]).containsExactly(ChangeFeed.RESYNC);
+    }
+
+    @Test
+    public void drops_changes_for_a_resync_when_a_subscriber_falls_behind() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(released);
+        RecordingEmitter fast = new RecordingEmitter();
+        changeFeed.subscribe(slow, null);
+        changeFeed.subscribe(fast, null);
+
+        // no faster than the fast one keeps up
+        for (int i = 0; i < 10; ++i) {
+            changeFeed.publish("issue", "{}");
+            assertThat(fast.awaitEvents(i + 2)).hasSize(i + 2);
+        }
+
+        released.countDown();
+        // subscribed, then a resync for what the buffer could not take, then the rest
+        List<String> slowEvents = slow.awaitEvents(3);
+        assertThat(slowEvents.size()).isLessThan(11);
+        assertThat(slowEvents).anyMatch(event -> event.endsWith(" " + ChangeFeed.RESYNC));
+        assertThat(slowEvents.get(slowEvents.size() - 1)).isEqualTo(fast.awaitEvents(11).get(10));
+    }
+
+    @Test
+    public void drops_a_subscriber_not_reading_holding_up_no_one_else() throws Exception {
+        changeFeed = changeFeed(200);
+        CountDownLatch released = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(released);
+        RecordingEmitter reading = new RecordingEmitter();
+        changeFeed.subscribe(stalled, null);
+        changeFeed.subscribe(reading, null);
+
+        for (int i = 0; i < 10; ++i) {
+            changeFeed.publish("issue", "{}");
+            assertThat(reading.awaitEvents(i + 2)).hasSize(i + 2);
+        }
+
+        // dropped with no change coming, making room
+        Thread.sleep(500);
+        changeFeed.subscribe(new RecordingEmitter(), null);
+        changeFeed.subscribe(new RecordingEmitter(), null);
+
+        released.countDown();
+        assertThat(stalled.awaitCompleted()).isTrue();
+        assertThat(stalled.awaitEvents(1)).hasSize(1);
+    }
+
+    @Test
+    public void turns_away_subscribers_above_the_limit() throws Exception {
+        for (int i = 0; i < 3; ++i) {
+            changeFeed.subscribe(new RecordingEmitter(), null);
+        }
+
+        assertThatThrownBy(() -> changeFeed.subscribe(new RecordingEmitter(), null))
+                .isInstanceOf(ChangeFeed.Exc.class);
+    }
+
+    private static ChangeFeed changeFeed(long sendTimeoutMillis) {
+        return new ChangeFeed(new ObjectMapper(), 4, 3, 3, 2, sendTimeoutMillis, new SimpleMeterRegistry());
+    }
+}
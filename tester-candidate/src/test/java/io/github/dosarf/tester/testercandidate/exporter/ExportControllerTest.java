@@ -0,0 +1,79 @@
+package io.github.dosarf.tester.testercandidate.exporter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.calculator.CalculatorController;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export-controller-test")
+@AutoConfigureMockMvc
+public class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+
+    @Test
+    public void exports_every_issue_as_ndjson() throws Exception {
+        User creator = userService.save(new User("Exported", "Creator"));
+        Issue first = issueService.save(new Issue("exported-1", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        Issue second = issueService.save(new Issue("exported-2", Issue.Type.ENHANCEMENT, null, "", creator));
+
+        String ndjson = mvc.perform(MockMvcRequestBuilders.get("/exportissues").accept(CalculatorController.APPLICATION_NDJSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(CalculatorController.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<Issue> issues = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            issues.add(objectMapper.readValue(line, Issue.class));
+        }
+        List<Issue> exported = issues.stream()
+                .filter(issue -> issue.getSummary().startsWith("exported-"))
+                .collect(Collectors.toList());
+
+        assertThat(exported).containsExactly(first, second);
+        assertThat(exported.get(1).getCreator().getFirstName()).isEqualTo("Exported");
+        assertThat(issues).isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+    }
+
+    @Test
+    public void exports_every_user_as_json_array() throws Exception {
+        User user = userService.save(new User("Exported", "User"));
+
+        String json = mvc.perform(MockMvcRequestBuilders.get("/exportusers").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        User[] users = objectMapper.readValue(json, User[].class);
+        assertThat(Stream.of(users).map(User::getLastName)).contains("User");
+        assertThat(users).contains(user);
+    }
+}
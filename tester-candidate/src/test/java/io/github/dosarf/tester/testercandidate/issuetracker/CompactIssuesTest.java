@@ -0,0 +1,105 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:compact-issues-test")
+@AutoConfigureMockMvc
+public class CompactIssuesTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+
+    @Test
+    public void sends_each_creator_once_by_media_type() throws Exception {
+        User alice = userService.save(new User("Compact", "Alice"));
+        User bob = userService.save(new User("Compact", "Bob"));
+        issueService.save(new Issue("first", Issue.Type.DEFECT, Issue.Priority.LOW, "", alice));
+        issueService.save(new Issue("second", Issue.Type.DEFECT, Issue.Priority.LOW, "", bob));
+        issueService.save(new Issue("third", Issue.Type.DEFECT, Issue.Priority.LOW, "", alice));
+
+        MvcResult result = mvc.perform(MockMvcRequestBuilders.get("/user/" + alice.getId() + "/issue").accept(IssueRepresentation.APPLICATION_COMPACT_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(IssueRepresentation.APPLICATION_COMPACT_JSON))
+                .andReturn();
+        JsonNode compact = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertThat(compact.get("issues")).extracting(issue -> issue.get("creator").asLong())
+                .containsExactly(alice.getId(), alice.getId());
+        assertThat(compact.get("users")).hasSize(1);
+        assertThat(compact.get("users").get(0).toString()).isEqualTo(objectMapper.writeValueAsString(alice));
+
+        compact = objectMapper.readTree(mvc.perform(MockMvcRequestBuilders.get("/issue/?type=DEFECT&priority=LOW&view=compact").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+        assertThat(compact.get("issues")).extracting(issue -> issue.get("summary").asText())
+                .containsExactly("first", "second", "third");
+        assertThat(compact.get("users")).extracting(user -> user.get("lastName").asText())
+                .containsExactly("Alice", "Bob");
+    }
+
+    @Test
+    public void tells_representations_apart_by_etag() throws Exception {
+        User creator = userService.save(new User("Compact", "Tagger"));
+        issueService.save(new Issue("tagged", Issue.Type.ENHANCEMENT, Issue.Priority.HIGH, "", creator));
+        String uri = "/user/" + creator.getId() + "/issue";
+
+        String fullEtag = mvc.perform(MockMvcRequestBuilders.get(uri))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        String compactEtag = mvc.perform(MockMvcRequestBuilders.get(uri).accept(IssueRepresentation.APPLICATION_COMPACT_JSON))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(compactEtag).isNotEqualTo(fullEtag);
+
+        mvc.perform(MockMvcRequestBuilders.get(uri).accept(IssueRepresentation.APPLICATION_COMPACT_JSON).header(HttpHeaders.IF_NONE_MATCH, compactEtag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        mvc.perform(MockMvcRequestBuilders.get(uri).header(HttpHeaders.IF_NONE_MATCH, compactEtag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].creator.lastName").value("Tagger"));
+    }
+
+    @Test
+    public void writes_issues_as_bean_serialization_would() throws Exception {
+        User creator = userService.save(new User("Compact", "Writer"));
+        Issue issue = issueService.save(new Issue("written", Issue.Type.DEFECT, Issue.Priority.MEDIUM, "*as is*", creator));
+        Issue blank = new Issue(null, null, null, null, null);
+        ObjectMapper beanMapper = objectMapper.copy().setAnnotationIntrospector(new JacksonAnnotationIntrospector() {
+            @Override
+            public Object findSerializer(Annotated annotated) {
+                return null;
+            }
+        });
+
+        assertThat(objectMapper.writeValueAsString(issue)).isEqualTo(beanMapper.writeValueAsString(issue));
+        assertThat(objectMapper.writeValueAsString(blank)).isEqualTo(beanMapper.writeValueAsString(blank));
+    }
+}
@@ -0,0 +1,123 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.calculator.CalculatorController;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:issue-bulk-creation-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "issuetracker.bulk.batch-size=50" })
+@AutoConfigureMockMvc
+public class IssueBulkCreationTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void creates_issues_in_batches_with_ids_in_request_order() throws Exception {
+        User creator = userService.save(new User("Bulk", "Creator"));
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < 120; ++i) {
+            issues.add(new Issue("bulk-" + i, Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String json = mvc.perform(MockMvcRequestBuilders.post("/issue/bulk").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issues)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        IssueImportResult[] results = objectMapper.readValue(json, IssueImportResult[].class);
+        assertThat(results).hasSize(120);
+        assertThat(results).allSatisfy(result -> assertThat(result.error).isNull());
+        List<Long> ids = Stream.of(results).map(result -> result.id).collect(Collectors.toList());
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(issueService.findById(ids.get(119)).map(Issue::getSummary)).contains("bulk-119");
+        // a creator lookup, then a sequence call, an insert statement and a batch per 50 issues
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(120);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    public void allocates_ids_fifty_at_a_time() {
+        assertThat(jdbcTemplate.queryForObject(
+                "select increment from information_schema.sequences where sequence_name = 'ISSUE_SEQ'",
+                Long.class))
+                .isEqualTo(50);
+    }
+
+    @Test
+    public void reports_errors_row_by_row() throws Exception {
+        User creator = userService.save(new User("Bulk", "Reporter"));
+        StringBuilder tooLong = new StringBuilder();
+        for (int i = 0; i <= Issue.DESCRIPTION_LENGTH; ++i) {
+            tooLong.append('x');
+        }
+        Issue[] issues = {
+                new Issue("fine", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator),
+                new Issue("no creator", Issue.Type.DEFECT, Issue.Priority.LOW, "", null),
+                new Issue("unknown creator", Issue.Type.DEFECT, Issue.Priority.LOW, "", new User(-1L, "No", "Body")),
+                new Issue("too long", Issue.Type.DEFECT, Issue.Priority.LOW, tooLong.toString(), creator),
+                new Issue("also fine", Issue.Type.ENHANCEMENT, Issue.Priority.HIGH, "", creator)
+        };
+        StringBuilder ndjson = new StringBuilder();
+        for (Issue issue : issues) {
+            ndjson.append(objectMapper.writeValueAsString(issue)).append('\n');
+        }
+        ndjson.append("{\"summary\": \n");
+
+        String response = mvc.perform(MockMvcRequestBuilders.post("/issue/bulk").accept(CalculatorController.APPLICATION_NDJSON).contentType(CalculatorController.APPLICATION_NDJSON).content(ndjson.toString()))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<IssueImportResult> results = new ArrayList<>();
+        for (String line : response.split("\n")) {
+            results.add(objectMapper.readValue(line, IssueImportResult.class));
+        }
+        assertThat(results).hasSize(6);
+        assertThat(results.get(0).id).isNotNull();
+        assertThat(results.get(1).error).isEqualTo("ERROR: missing creator");
+        assertThat(results.get(2).error).isEqualTo("ERROR: unknown creator: -1");
+        assertThat(results.get(3).error).isEqualTo("ERROR: description longer than 4096 characters");
+        assertThat(results.get(4).id).isGreaterThan(results.get(0).id);
+        assertThat(results.get(5).error).startsWith("ERROR: ");
+        assertThat(issueService.findByCreator(creator))
+                .extracting(Issue::getSummary)
+                .containsExactly("fine", "also fine");
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:issue-conditional-request-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureMockMvc
+public class IssueConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void answers_unchanged_issues_with_not_modified_from_a_version_query() throws Exception {
+        User creator = userService.save(new User("Conditional", "Getter"));
+        Issue issue = issueService.save(new Issue("etag", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        String etag = etag("/issue/" + issue.getId());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mvc.perform(MockMvcRequestBuilders.get("/issue/" + issue.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(0);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void changes_the_etag_with_the_issue_and_its_creator() throws Exception {
+        User creator = userService.save(new User("Conditional", "Changer"));
+        Issue issue = issueService.save(new Issue("etag", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        String uri = "/issue/" + issue.getId();
+        String etag = etag(uri);
+
+        issue.setSummary("changed");
+        issueService.save(issue);
+
+        mvc.perform(MockMvcRequestBuilders.get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("summary").value("changed"));
+        assertThat(etag(uri)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void rejects_lost_updates() throws Exception {
+        User creator = userService.save(new User("Conditional", "Putter"));
+        Issue issue = issueService.save(new Issue("etag", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        String uri = "/issue/" + issue.getId();
+        String etag = etag(uri);
+
+        issue.setSummary("first");
+        String newEtag = mvc.perform(MockMvcRequestBuilders.put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issue)))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isEqualTo(etag(uri));
+
+        issue.setSummary("second");
+        mvc.perform(MockMvcRequestBuilders.put(uri).header(HttpHeaders.IF_MATCH, etag).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issue)))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+        assertThat(issueService.findById(issue.getId()).map(Issue::getSummary)).contains("first");
+    }
+
+    @Test
+    public void answers_unchanged_listings_with_not_modified() throws Exception {
+        User creator = userService.save(new User("Conditional", "Lister"));
+        issueService.save(new Issue("etag", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+
+        for (String uri : new String[] { "/issue/?size=5", "/user/?size=5", "/user/" + creator.getId(), "/user/" + creator.getId() + "/issue" }) {
+            String etag = etag(uri);
+            mvc.perform(MockMvcRequestBuilders.get(uri).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(MockMvcResultMatchers.status().isNotModified());
+        }
+
+        String etag = etag("/user/" + creator.getId() + "/issue");
+        issueService.save(new Issue("another", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        mvc.perform(MockMvcRequestBuilders.get("/user/" + creator.getId() + "/issue").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private String etag(String uri) throws Exception {
+        String etag = mvc.perform(MockMvcRequestBuilders.get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+        return etag;
+    }
+}
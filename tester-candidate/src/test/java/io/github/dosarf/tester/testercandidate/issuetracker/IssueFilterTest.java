@@ -0,0 +1,126 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:issue-filter-test")
+@AutoConfigureMockMvc
+public class IssueFilterTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User alice;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        issueService.deleteAll();
+        alice = userService.save(new User("Alice", "Filter"));
+        bob = userService.save(new User("Bob", "Filter"));
+        issueService.save(new Issue("a1", Issue.Type.DEFECT, Issue.Priority.HIGH, "", alice));
+        issueService.save(new Issue("a2", Issue.Type.DEFECT, Issue.Priority.HIGH, "", alice));
+        issueService.save(new Issue("a3", Issue.Type.ENHANCEMENT, Issue.Priority.LOW, "", alice));
+        issueService.save(new Issue("b1", Issue.Type.DEFECT, Issue.Priority.HIGH, "", bob));
+        issueService.save(new Issue("b2", Issue.Type.DEFECT, Issue.Priority.MEDIUM, "", bob));
+    }
+
+    @Test
+    public void lists_issues_by_type_priority_and_creator() throws Exception {
+        assertThat(list("/issue/?type=DEFECT&priority=HIGH"))
+                .extracting(Issue::getSummary)
+                .containsExactly("a1", "a2", "b1");
+        assertThat(list("/issue/?type=DEFECT&creator=" + bob.getId()))
+                .extracting(Issue::getSummary)
+                .containsExactly("b1", "b2");
+        assertThat(list("/user/" + alice.getId() + "/issue?priority=LOW"))
+                .extracting(Issue::getSummary)
+                .containsExactly("a3");
+    }
+
+    @Test
+    public void pages_through_filtered_issues() throws Exception {
+        String link = mvc.perform(MockMvcRequestBuilders.get("/issue/?type=DEFECT&size=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("Link");
+
+        String next = link.substring(link.indexOf("/issue/"), link.indexOf('>'));
+        assertThat(list(next))
+                .extracting(Issue::getSummary)
+                .containsExactly("b1", "b2");
+    }
+
+    @Test
+    public void counts_issues_by_type_priority_and_creator() throws Exception {
+        IssueFacets facets = facets("/issue/facets");
+        assertThat(facets.total).isEqualTo(5);
+        assertThat(facets.type).containsEntry(Issue.Type.DEFECT, 4L).containsEntry(Issue.Type.ENHANCEMENT, 1L);
+        assertThat(facets.priority).containsEntry(Issue.Priority.HIGH, 3L);
+        assertThat(facets.creator).containsEntry(alice.getId(), 3L).containsEntry(bob.getId(), 2L);
+        assertThat(facets.groups).hasSize(4);
+
+        // HIGH DEFECTs per user
+        IssueFacets highDefects = facets("/issue/facets?type=DEFECT&priority=HIGH");
+        assertThat(highDefects.total).isEqualTo(3);
+        assertThat(highDefects.creator).containsEntry(alice.getId(), 2L).containsEntry(bob.getId(), 1L);
+    }
+
+    @Test
+    public void rejects_unknown_types_and_priorities() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/issue/?type=BUG").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/issue/facets?priority=URGENT").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void indexes_creator_type_and_priority() {
+        List<String> columns = jdbcTemplate.queryForList(
+                "select column_name from information_schema.indexes where index_name = 'ISSUE_CREATOR_TYPE_PRIORITY' order by ordinal_position",
+                String.class);
+        assertThat(columns).containsExactly("CREATOR_ID", "TYPE", "PRIORITY");
+    }
+
+    private Issue[] list(String uri) throws Exception {
+        String json = mvc.perform(MockMvcRequestBuilders.get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(json, Issue[].class);
+    }
+
+    private IssueFacets facets(String uri) throws Exception {
+        String json = mvc.perform(MockMvcRequestBuilders.get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(json, IssueFacets.class);
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:issue-patch-test",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=io.github.dosarf.tester.testercandidate.issuetracker.IssuePatchTest$Statements" })
+@AutoConfigureMockMvc
+public class IssuePatchTest {
+
+    public static class Statements implements StatementInspector {
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+
+    private static final MediaType APPLICATION_MERGE_PATCH_JSON = MediaType.valueOf(IssueMergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE);
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+
+    @Test
+    public void updates_only_the_patched_columns() throws Exception {
+        User creator = userService.save(new User("Patch", "Priority"));
+        Issue issue = issueService.save(new Issue("patch", Issue.Type.DEFECT, Issue.Priority.LOW, "long description", creator));
+        Statements.statements.clear();
+
+        mvc.perform(MockMvcRequestBuilders.patch("/issue/" + issue.getId()).contentType(APPLICATION_MERGE_PATCH_JSON).content("{\"priority\": \"HIGH\", \"creator\": {\"id\": " + creator.getId() + "}}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("priority").value("HIGH"))
+                .andExpect(MockMvcResultMatchers.jsonPath("description").value("long description"))
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.ETAG));
+
+        List<String> updates = Statements.statements.stream()
+                .filter(sql -> sql.startsWith("update"))
+                .collect(Collectors.toList());
+        assertThat(updates).hasSize(1);
+        assertThat(updates.get(0)).contains("priority").doesNotContain("description").doesNotContain("summary");
+        // the creator is unchanged, so not looked up
+        assertThat(Statements.statements).noneMatch(sql -> sql.contains("from user"));
+    }
+
+    @Test
+    public void clears_with_null_and_changes_the_creator() throws Exception {
+        User creator = userService.save(new User("Patch", "Creator"));
+        User other = userService.save(new User("Patch", "Other"));
+        Issue issue = issueService.save(new Issue("patch", Issue.Type.DEFECT, Issue.Priority.LOW, "description", creator));
+
+        mvc.perform(MockMvcRequestBuilders.patch("/issue/" + issue.getId()).contentType(APPLICATION_MERGE_PATCH_JSON).content("{\"description\": null, \"creator\": {\"id\": " + other.getId() + "}}"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("summary").value("patch"))
+                .andExpect(MockMvcResultMatchers.jsonPath("creator.lastName").value("Other"));
+
+        Issue patched = issueService.findById(issue.getId()).get();
+        assertThat(patched.getDescription()).isNull();
+        assertThat(patched.getCreator()).isEqualTo(other);
+    }
+
+    @Test
+    public void rejects_bad_patches() throws Exception {
+        User creator = userService.save(new User("Patch", "Rejected"));
+        Issue issue = issueService.save(new Issue("patch", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        String uri = "/issue/" + issue.getId();
+
+        for (String patch : new String[] { "[]", "{\"id\": 1}", "{\"type\": \"BUG\"}", "{\"creator\": null}" }) {
+            mvc.perform(MockMvcRequestBuilders.patch(uri).contentType(APPLICATION_MERGE_PATCH_JSON).content(patch))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+        mvc.perform(MockMvcRequestBuilders.patch(uri).contentType(APPLICATION_MERGE_PATCH_JSON).content("{\"creator\": {\"id\": -1}}"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mvc.perform(MockMvcRequestBuilders.patch(uri).header(HttpHeaders.IF_MATCH, "\"stale\"").contentType(APPLICATION_MERGE_PATCH_JSON).content("{\"summary\": \"x\"}"))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        assertThat(issueService.findById(issue.getId()).map(Issue::getSummary)).contains("patch");
+    }
+}
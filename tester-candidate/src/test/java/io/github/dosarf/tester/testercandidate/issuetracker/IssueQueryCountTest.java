@@ -0,0 +1,101 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Listings must take the same number of SQL statements, however many issues (and creators) there are.
+// The second-level cache is off, it would hide the statements otherwise taken.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:issue-query-count-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false" })
+@AutoConfigureMockMvc
+public class IssueQueryCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User creator;
+
+    @BeforeEach
+    void setUp() {
+        if (userService.count() == 0) {
+            for (int i = 0; i < 5; ++i) {
+                User user = userService.save(new User("Counted", "Creator " + i));
+                for (int j = 0; j < 3; ++j) {
+                    issueService.save(new Issue("counted-" + i + "-" + j, Issue.Type.DEFECT, Issue.Priority.LOW, "", user));
+                }
+            }
+        }
+        creator = userService.findAllByOrderByIdAsc(PageRequest.of(0, 1)).get(0);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void list_all_takes_one_statement() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/issue/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void list_all_sorted_takes_one_statement() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/issue/?sort=priority&size=4&cursor=LOW:3").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void list_issues_created_by_takes_two_statements() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/user/" + creator.getId() + "/issue").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // the user, then the issues
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void export_issues_created_by_takes_two_statements() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/exportissues/user/" + creator.getId()).accept(MediaType.TEXT_HTML))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        // the user, then the issues
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void export_all_issues_takes_one_statement() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/exportissues"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.dosarf.tester.testercandidate.issuetracker;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.tenancy.TenantClosedEvent;
+import io.github.dosarf.tester.testercandidate.tenancy.Tenants;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:issue-statistics-test")
+@AutoConfigureMockMvc
+public class IssueStatisticsTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void keeps_up_with_created_updated_and_deleted_issues() throws Exception {
+        User alice = userService.save(new User("Alice", "Stats"));
+        User bob = userService.save(new User("Bob", "Stats"));
+        Issue a1 = issueService.save(new Issue("a1", Issue.Type.DEFECT, Issue.Priority.HIGH, "", alice));
+        issueService.save(new Issue("a2", Issue.Type.DEFECT, Issue.Priority.HIGH, "", alice));
+        Issue b1 = issueService.save(new Issue("b1", Issue.Type.ENHANCEMENT, Issue.Priority.LOW, "", bob));
+        Issue b2 = issueService.save(new Issue("b2", Issue.Type.DEFECT, Issue.Priority.MEDIUM, "", bob));
+        assertThat(stats()).isEqualTo(facets());
+
+        Issue moved = new Issue("a1", Issue.Type.ENHANCEMENT, Issue.Priority.HIGH, "", bob);
+        mvc.perform(MockMvcRequestBuilders.put("/issue/" + a1.getId()).accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(moved)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mvc.perform(MockMvcRequestBuilders.patch("/issue/" + b1.getId()).contentType(IssueMergePatch.APPLICATION_MERGE_PATCH_JSON_VALUE).content("{\"priority\":\"HIGH\"}"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        issueService.delete(b2);
+        assertThat(stats()).isEqualTo(facets());
+
+        String stats = stats();
+        IssueFacets facets = objectMapper.readValue(stats, IssueFacets.class);
+        assertThat(facets.creator.get(bob.getId())).isEqualTo(2);
+        assertThat(facets.type.get(Issue.Type.ENHANCEMENT)).isEqualTo(2);
+    }
+
+    @Test
+    public void counts_changes_committed_while_counting() throws Exception {
+        User creator = userService.save(new User("Busy", "Stats"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 5; ++round) {
+                // counted afresh, on the next request
+                eventPublisher.publishEvent(new TenantClosedEvent(Tenants.DEFAULT));
+                List<Future<?>> writers = new ArrayList<>();
+                for (int writer = 0; writer < 4; ++writer) {
+                    writers.add(executor.submit(() -> {
+                        for (int i = 0; i < 20; ++i) {
+                            issueService.save(new Issue("busy", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+                        }
+                    }));
+                }
+                while (writers.stream().anyMatch(future -> !future.isDone())) {
+                    stats();
+                }
+                for (Future<?> future : writers) {
+                    future.get();
+                }
+
+                assertThat(stats()).isEqualTo(facets());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void answers_without_a_statement() throws Exception {
+        stats();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        stats();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private String stats() throws Exception {
+        return get("/issue/stats");
+    }
+
+    private String facets() throws Exception {
+        return get("/issue/facets");
+    }
+
+    private String get(String uri) throws Exception {
+        return mvc.perform(MockMvcRequestBuilders.get(uri).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
@@ -10,11 +10,14 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -136,6 +139,90 @@ public class IssueTrackerControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("id", Matchers.is((int)issueId)));
     }
 
+    @Test
+    @Order(5)
+    public void list_created_by_page_by_page() throws Exception {
+        ResponseJson responseJson = new ResponseJson();
+
+        User user = new User("Jane", "Roe");
+        mvc.perform(MockMvcRequestBuilders.post("/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(user)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andDo(result -> responseJson.setJson(result.getResponse().getContentAsString()));
+        User creator = objectMapper.readValue(responseJson.getJson(), User.class);
+
+        Issue.Priority[] priorities = { Issue.Priority.LOW, Issue.Priority.HIGH, null, Issue.Priority.MEDIUM, Issue.Priority.HIGH };
+        for (Issue.Priority priority : priorities) {
+            Issue issue = new Issue("paged-" + priority, Issue.Type.DEFECT, priority, "", creator);
+            mvc.perform(MockMvcRequestBuilders.post("/issue/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issue)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        List<String> summaries = new ArrayList<>();
+        String next = "/user/" + creator.getId() + "/issue?size=2&sort=priority";
+        int pageCount = 0;
+        while (next != null) {
+            ResponseJson linkHeader = new ResponseJson();
+            mvc.perform(MockMvcRequestBuilders.get(next).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andDo(result -> {
+                        responseJson.setJson(result.getResponse().getContentAsString());
+                        linkHeader.setJson(result.getResponse().getHeader(HttpHeaders.LINK));
+                    });
+            Stream.of(objectMapper.readValue(responseJson.getJson(), Issue[].class))
+                    .map(Issue::getSummary)
+                    .forEach(summaries::add);
+            next = linkHeader.getJson() == null
+                    ? null
+                    : linkHeader.getJson().replaceAll("^<http://localhost(.*)>; rel=\"next\"$", "$1");
+            ++pageCount;
+        }
+
+        assertThat(pageCount).isEqualTo(3);
+        assertThat(summaries).containsExactly(
+                "paged-HIGH", "paged-HIGH", "paged-MEDIUM", "paged-LOW", "paged-null");
+    }
+
+    @Test
+    @Order(6)
+    public void list_rejects_bad_page_requests() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/issue/?size=0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/issue/?sort=summary").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/issue/?sort=priority&cursor=URGENT:1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    @Order(7)
+    public void list_created_by_whole_without_size_or_cursor() throws Exception {
+        ResponseJson responseJson = new ResponseJson();
+        mvc.perform(MockMvcRequestBuilders.post("/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new User("Whole", "Lister"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andDo(result -> responseJson.setJson(result.getResponse().getContentAsString()));
+        User creator = objectMapper.readValue(responseJson.getJson(), User.class);
+
+        // more than paging.default-size of them
+        List<Issue> issues = new ArrayList<>();
+        for (int i = 0; i < 105; ++i) {
+            issues.add(new Issue("whole-" + i, Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        }
+        mvc.perform(MockMvcRequestBuilders.post("/issue/bulk").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issues)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mvc.perform(MockMvcRequestBuilders.get("/user/" + creator.getId() + "/issue").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(105));
+        mvc.perform(MockMvcRequestBuilders.get("/user/" + creator.getId() + "/issue?size=100").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LINK))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(100));
+        mvc.perform(MockMvcRequestBuilders.get("/user/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LINK));
+    }
+
     // TODO there's got to be a seriously better way than this
     private static class ResponseJson {
         private String json = null;
@@ -0,0 +1,69 @@
+package io.github.dosarf.tester.testercandidate.loaddriver;
+
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.datasource.url=jdbc:h2:mem:load-driver-test")
+public class LoadDriverTest {
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    public void reports_every_endpoint_of_the_mix() throws Exception {
+        userService.save(new User("Load", "Driver"));
+        LoadDriver loadDriver = new LoadDriver(
+                "http://localhost:" + port,
+                100,
+                2,
+                8,
+                LoadDriver.parseMix("calculate,create=3,get,update,list,export"));
+
+        LoadDriver.Report report = loadDriver.run();
+
+        long total = 0;
+        for (LoadDriver.Endpoint endpoint : LoadDriver.Endpoint.values()) {
+            LoadDriver.Stats stats = report.getStats(endpoint);
+            assertThat(stats.getCount()).as(endpoint.getLabel()).isPositive();
+            assertThat(stats.getLatencies().getMaxValue()).as(endpoint.getLabel()).isPositive();
+            total += stats.getCount();
+        }
+        assertThat(total).isBetween(150L, 250L);
+        assertThat(report.toString()).contains("POST /calculator/", "dropped", "p99.9 ms");
+    }
+
+    @Test
+    public void rejects_rates_it_cannot_keep() throws Exception {
+        for (double rate : new double[] { 0, -1, Double.NaN, 2e9 }) {
+            LoadDriver loadDriver = new LoadDriver(
+                    "http://localhost:" + port,
+                    rate,
+                    1,
+                    1,
+                    LoadDriver.parseMix("calculate"));
+
+            assertThat(catchThrowable(loadDriver::run))
+                    .as("rate %s", rate)
+                    .isInstanceOf(LoadDriver.Exc.class)
+                    .hasMessageStartingWith("rate not in");
+        }
+    }
+
+    @Test
+    public void rejects_unknown_endpoints() {
+        assertThat(catchThrowable(() -> LoadDriver.parseMix("calculate,delete=2")))
+                .isInstanceOf(LoadDriver.Exc.class)
+                .hasMessage("unknown endpoint: delete");
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.dosarf.tester.testercandidate.persistence;
+
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:second-level-cache-test",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "management.endpoints.web.exposure.include=cacheregions" })
+@AutoConfigureMockMvc
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void finds_cached_users_and_issues_without_statements() {
+        User user = userService.save(new User("Cached", "User"));
+        Issue issue = issueService.save(new Issue("cached", Issue.Type.DEFECT, Issue.Priority.LOW, "", user));
+        statistics.clear();
+
+        assertThat(userService.findById(user.getId())).contains(user);
+        assertThat(issueService.findById(issue.getId())).contains(issue);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void caches_issues_of_a_creator_until_issues_change() {
+        User creator = userService.save(new User("Caching", "Creator"));
+        issueService.save(new Issue("first", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+
+        assertThat(issueService.findByCreator(creator)).extracting(Issue::getSummary).containsExactly("first");
+        statistics.clear();
+        assertThat(issueService.findByCreator(creator)).extracting(Issue::getSummary).containsExactly("first");
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(0);
+
+        issueService.save(new Issue("second", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+
+        assertThat(issueService.findByCreator(creator)).extracting(Issue::getSummary).containsExactly("first", "second");
+    }
+
+    @Test
+    public void reports_cache_regions() throws Exception {
+        User user = userService.save(new User("Reported", "User"));
+        userService.findById(user.getId());
+
+        mvc.perform(MockMvcRequestBuilders.get("/actuator/cacheregions").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("user.size", Matchers.greaterThanOrEqualTo(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("user.hits", Matchers.greaterThanOrEqualTo(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("issue.hitRatio", Matchers.notNullValue()));
+    }
+}
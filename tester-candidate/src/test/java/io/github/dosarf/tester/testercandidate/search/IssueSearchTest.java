@@ -0,0 +1,206 @@
+package io.github.dosarf.tester.testercandidate.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.tenancy.TenantClosedEvent;
+import io.github.dosarf.tester.testercandidate.tenancy.Tenants;
+import io.github.dosarf.tester.testercandidate.user.User;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:issue-search-test")
+@AutoConfigureMockMvc
+public class IssueSearchTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+    @Autowired
+    private IssueSearchIndex issueSearchIndex;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Test
+    public void ranks_summary_matches_first_and_highlights_them() throws Exception {
+        User creator = userService.save(new User("Search", "Ranker"));
+        Issue inDescription = issueService.save(new Issue("Login page", Issue.Type.DEFECT, Issue.Priority.LOW,
+                "The **flamingo** button does nothing", creator));
+        Issue inSummary = issueService.save(new Issue("Flamingo crashes", Issue.Type.DEFECT, Issue.Priority.HIGH,
+                "See [the logs](http://logs)", creator));
+
+        IssueSearchResult result = search("flamingo", 10, 0);
+
+        assertThat(result.total).isEqualTo(2);
+        assertThat(result.hits).extracting(hit -> hit.id).containsExactly(inSummary.getId(), inDescription.getId());
+        assertThat(result.hits.get(0).summaryHighlight).isEqualTo("<b>Flamingo</b> crashes");
+        assertThat(result.hits.get(0).priority).isEqualTo(Issue.Priority.HIGH);
+        // markdown stripped
+        assertThat(result.hits.get(1).descriptionHighlight).isEqualTo("The <b>flamingo</b> button does nothing");
+    }
+
+    @Test
+    public void requires_every_term() throws Exception {
+        User creator = userService.save(new User("Search", "Terms"));
+        issueService.save(new Issue("Pelican export", Issue.Type.DEFECT, Issue.Priority.LOW, "slow", creator));
+        Issue both = issueService.save(new Issue("Pelican import", Issue.Type.DEFECT, Issue.Priority.LOW, "slow", creator));
+
+        IssueSearchResult result = search("pelican import", 10, 0);
+
+        assertThat(result.hits).extracting(hit -> hit.id).containsExactly(both.getId());
+    }
+
+    @Test
+    public void follows_updates_and_deletions() throws Exception {
+        User creator = userService.save(new User("Search", "Updater"));
+        Issue issue = issueService.save(new Issue("Ostrich", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        assertThat(search("ostrich", 10, 0).total).isEqualTo(1);
+
+        issue.setSummary("Emu");
+        issue = issueService.save(issue);
+        assertThat(search("ostrich", 10, 0).total).isEqualTo(0);
+        assertThat(search("emu", 10, 0).hits).extracting(hit -> hit.id).containsExactly(issue.getId());
+
+        issueService.delete(issue);
+        assertThat(search("emu", 10, 0).total).isEqualTo(0);
+    }
+
+    @Test
+    public void rebuilds_from_the_database() throws Exception {
+        User creator = userService.save(new User("Search", "Rebuilder"));
+        Issue issue = issueService.save(new Issue("Albatross", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+
+        issueSearchIndex.rebuild();
+
+        assertThat(search("albatross", 10, 0).hits).extracting(hit -> hit.id).containsExactly(issue.getId());
+    }
+
+    @Test
+    public void pages_through_the_results() throws Exception {
+        User creator = userService.save(new User("Search", "Pager"));
+        for (int i = 0; i < 5; ++i) {
+            issueService.save(new Issue("Penguin " + i, Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        }
+
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search?q=penguin&size=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LINK, Matchers.containsString("page=1")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hits.length()").value(2));
+
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search?q=penguin&size=2&page=2").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hits.length()").value(1));
+    }
+
+    @Test
+    public void answers_pages_far_past_the_last_one_with_no_hits() throws Exception {
+        User creator = userService.save(new User("Search", "Skipper"));
+        issueService.save(new Issue("Cassowary", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+
+        for (int page : new int[] { 1, 1000000, Integer.MAX_VALUE }) {
+            IssueSearchResult result = search("cassowary", 1000, page);
+            assertThat(result.total).isEqualTo(1);
+            assertThat(result.hits).isEmpty();
+        }
+    }
+
+    @Test
+    public void indexes_changes_committed_while_building() throws Exception {
+        User creator = userService.save(new User("Search", "Builder"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            int saved = 0;
+            for (int round = 0; round < 5; ++round) {
+                // built afresh, on the next search
+                eventPublisher.publishEvent(new TenantClosedEvent(Tenants.DEFAULT));
+                List<Future<?>> writers = new ArrayList<>();
+                for (int writer = 0; writer < 4; ++writer) {
+                    writers.add(executor.submit(() -> {
+                        for (int i = 0; i < 20; ++i) {
+                            issueService.save(new Issue("Heron", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+                        }
+                    }));
+                }
+                while (writers.stream().anyMatch(future -> !future.isDone())) {
+                    issueSearchIndex.search("heron", 0, 1);
+                }
+                for (Future<?> future : writers) {
+                    future.get();
+                }
+                saved += 80;
+
+                assertThat(issueSearchIndex.search("heron", 0, 1).total).isEqualTo(saved);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void searches_while_the_tenant_closes() throws Exception {
+        User creator = userService.save(new User("Search", "Closer"));
+        issueService.save(new Issue("Kingfisher", Issue.Type.DEFECT, Issue.Priority.LOW, "", creator));
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> closer = executor.submit(() -> {
+                for (int i = 0; i < 200; ++i) {
+                    eventPublisher.publishEvent(new TenantClosedEvent(Tenants.DEFAULT));
+                }
+            });
+            while (!closer.isDone()) {
+                assertThat(issueSearchIndex.search("kingfisher", 0, 10).total).isEqualTo(1);
+            }
+            closer.get();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void rejects_bad_requests() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search?q=x&size=0").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search?q=x&page=-1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private IssueSearchResult search(String q, int size, int page) throws Exception {
+        String json = mvc.perform(MockMvcRequestBuilders.get("/issue/search")
+                .param("q", q)
+                .param("size", String.valueOf(size))
+                .param("page", String.valueOf(page))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readValue(json, IssueSearchResult.class);
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.dosarf.tester.testercandidate.synthetic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.issuetracker.IssueService;
+import io.github.dosarf.tester.testercandidate.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:synthetic-data-test")
+@AutoConfigureMockMvc
+public class SyntheticDataTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private SyntheticData syntheticData;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private IssueService issueService;
+
+    @Test
+    public void generates_users_and_issues_to_scale() throws Exception {
+        long usersBefore = userService.count();
+        long issuesBefore = issueService.count();
+
+        String json = mvc.perform(MockMvcRequestBuilders.post("/admin/generate?users=30&issues=420&seed=7"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        SyntheticData.Result result = objectMapper.readValue(json, SyntheticData.Result.class);
+        assertThat(result.users).isEqualTo(30);
+        assertThat(result.issues).isEqualTo(420);
+        assertThat(result.failures).isZero();
+        assertThat(userService.count()).isEqualTo(usersBefore + 30);
+        assertThat(issueService.count()).isEqualTo(issuesBefore + 420);
+        assertThat(issueService.findAll())
+                .allSatisfy(issue -> assertThat(issue.getDescription().length()).isLessThanOrEqualTo(Issue.DESCRIPTION_LENGTH))
+                .anySatisfy(issue -> assertThat(issue.getDescription()).contains("## "));
+    }
+
+    @Test
+    public void generates_the_same_data_from_the_same_seed() {
+        List<String> first = summariesOfNew(() -> syntheticData.generate(5, 60, 42));
+        List<String> second = summariesOfNew(() -> syntheticData.generate(5, 60, 42));
+
+        assertThat(first).hasSize(60).isEqualTo(second);
+    }
+
+    @Test
+    public void rejects_no_users_and_too_many() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.post("/admin/generate?users=0&issues=10"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post("/admin/generate?users=100001&issues=10"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.post("/admin/generate?users=1&issues=1000001"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private List<String> summariesOfNew(Runnable generate) {
+        long lastId = StreamSupport.stream(issueService.findAll().spliterator(), false)
+                .mapToLong(Issue::getId)
+                .max()
+                .orElse(0);
+        generate.run();
+        return StreamSupport.stream(issueService.findAll().spliterator(), false)
+                .filter(issue -> issue.getId() > lastId)
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .map(Issue::getSummary)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.user.User;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenancy-test",
+        "tenancy.url-pattern=jdbc:h2:mem:tenancy-test-%s",
+        "tenancy.max-open=2" })
+@AutoConfigureMockMvc
+public class TenancyTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TenantDataSources tenantDataSources;
+
+    @Test
+    public void tenants_have_databases_of_their_own() throws Exception {
+        String location = mvc.perform(MockMvcRequestBuilders.post("/tenant/acme/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new User("Acme", "Candidate"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+        assertThat(location).startsWith("http://localhost/tenant/acme/user/");
+        User creator = objectMapper.readValue(
+                mvc.perform(MockMvcRequestBuilders.get(location).accept(MediaType.APPLICATION_JSON))
+                        .andExpect(MockMvcResultMatchers.status().isOk())
+                        .andReturn()
+                        .getResponse()
+                        .getContentAsString(),
+                User.class);
+        Issue issue = new Issue("acme crashes", Issue.Type.DEFECT, Issue.Priority.HIGH, "", creator);
+        mvc.perform(MockMvcRequestBuilders.post("/issue/").header("X-Tenant", "acme").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issue)))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        mvc.perform(MockMvcRequestBuilders.get("/user/").header("X-Tenant", "acme").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].firstName", Matchers.contains("Acme")));
+        mvc.perform(MockMvcRequestBuilders.get("/tenant/acme/issue/search").param("q", "crashes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("total", Matchers.is(1)));
+
+        mvc.perform(MockMvcRequestBuilders.get("/tenant/globex/user/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].firstName", Matchers.not(Matchers.hasItem("Acme"))));
+        mvc.perform(MockMvcRequestBuilders.get("/issue/search").param("q", "crashes").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("total", Matchers.is(0)));
+    }
+
+    @Test
+    public void rejects_invalid_tenants() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.get("/user/").header("X-Tenant", "../etc").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        mvc.perform(MockMvcRequestBuilders.get("/tenant/Acme/user/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void closes_the_least_recently_used_databases() throws Exception {
+        for (String tenant : new String[] { "lru-1", "lru-2", "lru-1", "lru-3" }) {
+            mvc.perform(MockMvcRequestBuilders.get("/user/").header("X-Tenant", tenant).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+
+        assertThat(tenantDataSources.getOpenCount()).isEqualTo(2);
+        assertThat(tenantDataSources.isOpen("lru-1")).isTrue();
+        assertThat(tenantDataSources.isOpen("lru-2")).isFalse();
+        assertThat(tenantDataSources.isOpen("lru-3")).isTrue();
+    }
+
+    @Test
+    public void serves_more_tenants_at_once_than_are_kept_open() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int client = 0; client < 4; ++client) {
+                String tenant = "churn-" + client;
+                clients.add(executor.submit(() -> {
+                    for (int i = 0; i < 25; ++i) {
+                        mvc.perform(MockMvcRequestBuilders.get("/user/").header("X-Tenant", tenant).accept(MediaType.APPLICATION_JSON))
+                                .andExpect(MockMvcResultMatchers.status().isOk());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
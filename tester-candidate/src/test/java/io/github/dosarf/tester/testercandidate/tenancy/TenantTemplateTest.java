@@ -0,0 +1,84 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.dosarf.tester.testercandidate.issuetracker.Issue;
+import io.github.dosarf.tester.testercandidate.user.User;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tenant-template-test",
+        "tenancy.url-pattern=jdbc:h2:file:${java.io.tmpdir}/tenant-template-test/%s;DB_CLOSE_ON_EXIT=FALSE",
+        "tenancy.template=${java.io.tmpdir}/tenant-template-test/template.mv.db" })
+@AutoConfigureMockMvc
+public class TenantTemplateTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void removeDatabases() throws IOException {
+        FileSystemUtils.deleteRecursively(Paths.get(System.getProperty("java.io.tmpdir"), "tenant-template-test"));
+    }
+
+    @Test
+    public void creates_tenant_databases_from_a_snapshot() throws Exception {
+        mvc.perform(MockMvcRequestBuilders.put("/admin/tenant/early"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        String location = mvc.perform(MockMvcRequestBuilders.post("/tenant/seed/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new User("Seed", "User"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+        User creator = objectMapper.readValue(
+                mvc.perform(MockMvcRequestBuilders.get(location)).andReturn().getResponse().getContentAsString(),
+                User.class);
+        for (int i = 0; i < 3; ++i) {
+            Issue issue = new Issue("seed-" + i, Issue.Type.DEFECT, Issue.Priority.LOW, "", creator);
+            mvc.perform(MockMvcRequestBuilders.post("/tenant/seed/issue/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(issue)))
+                    .andExpect(MockMvcResultMatchers.status().isCreated());
+        }
+
+        mvc.perform(MockMvcRequestBuilders.post("/tenant/seed/admin/template").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("tenant", Matchers.is("seed")))
+                .andExpect(MockMvcResultMatchers.jsonPath("size", Matchers.greaterThan(0)));
+
+        mvc.perform(MockMvcRequestBuilders.put("/admin/tenant/alice"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "http://localhost/tenant/alice/user/"));
+        mvc.perform(MockMvcRequestBuilders.get("/tenant/alice/issue/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].summary", Matchers.contains("seed-0", "seed-1", "seed-2")));
+        mvc.perform(MockMvcRequestBuilders.post("/tenant/alice/user/").accept(MediaType.APPLICATION_JSON).contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(new User("Alice", "Candidate"))))
+                .andExpect(MockMvcResultMatchers.status().isCreated());
+
+        mvc.perform(MockMvcRequestBuilders.put("/tenant/seed/admin/tenant/bob"))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.LOCATION, "http://localhost/tenant/bob/user/"));
+
+        mvc.perform(MockMvcRequestBuilders.put("/admin/tenant/alice"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+        mvc.perform(MockMvcRequestBuilders.put("/admin/tenant/seed"))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+        mvc.perform(MockMvcRequestBuilders.get("/tenant/seed/user/").accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[*].firstName", Matchers.contains("Seed")));
+    }
+}
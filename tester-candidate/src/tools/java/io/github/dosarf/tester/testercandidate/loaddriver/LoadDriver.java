@@ -0,0 +1,419 @@
+package io.github.dosarf.tester.testercandidate.loaddriver;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Drives a running service with a mix of requests, at a fixed rate (open loop): requests are sent
+// when they are due, whether or not the earlier ones have been answered, by a pool of threads. The
+// latency of a request is taken from when it was due, not from when a thread got round to sending
+// it, so a stalling service is not measured by the few requests it let through (coordinated
+// omission). Users and issues to read, update and export are the ones listed at the start, and the
+// ones created meanwhile; there must be at least one user. Requests still unanswered a minute after
+// the last one was due are dropped, counted as errors, with the latency they had by then.
+//
+// ./gradlew loadDriver -Pbase=http://localhost:8080 -Prate=200 -Pduration=60 -Pthreads=64 \
+//     -Pmix=calculate=4,get=4,create=1,update=1,list=2,export=1
+public class LoadDriver {
+
+    public static class Exc extends Exception {
+        public Exc(Throwable t, String format, Object ... args) {
+            super(String.format(format, args), t);
+        }
+    }
+
+    public enum Endpoint {
+        CALCULATE("calculate", "POST /calculator/"),
+        GET("get", "GET /issue/{id}"),
+        CREATE("create", "POST /issue/"),
+        UPDATE("update", "PUT /issue/{id}"),
+        LIST("list", "GET /issue/"),
+        EXPORT("export", "GET /exportissues/user/{id}");
+
+        private final String key;
+        private final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Endpoint parse(String key) throws Exc {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new Exc(null, "unknown endpoint: %s", key);
+        }
+    }
+
+    public static class Stats {
+        private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(10), 3);
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+
+        public long getCount() {
+            return latencies.getTotalCount();
+        }
+
+        // dropped ones included
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getDropped() {
+            return dropped.sum();
+        }
+
+        // in microseconds
+        public Histogram getLatencies() {
+            return latencies;
+        }
+    }
+
+    public static class Report {
+        private final Map<Endpoint, Stats> stats;
+        private final double seconds;
+
+        Report(Map<Endpoint, Stats> stats, double seconds) {
+            this.stats = stats;
+            this.seconds = seconds;
+        }
+
+        public Stats getStats(Endpoint endpoint) {
+            return stats.get(endpoint);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder report = new StringBuilder(String.format(Locale.ROOT,
+                    "%-30s %8s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "count", "errors", "dropped", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+                Histogram latencies = entry.getValue().latencies;
+                report.append(String.format(Locale.ROOT,
+                        "%-30s %8d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        entry.getKey().label,
+                        latencies.getTotalCount(),
+                        entry.getValue().getErrors(),
+                        entry.getValue().getDropped(),
+                        latencies.getTotalCount() / seconds,
+                        millis(latencies.getValueAtPercentile(50.0)),
+                        millis(latencies.getValueAtPercentile(90.0)),
+                        millis(latencies.getValueAtPercentile(99.0)),
+                        millis(latencies.getValueAtPercentile(99.9)),
+                        millis(latencies.getMaxValue())));
+            }
+            return report.toString();
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    // a request sent when due, recorded once: as answered, or as dropped if the run is over first
+    private class Request implements Runnable {
+        private final Endpoint endpoint;
+        private final long due;
+        private final Stats stats;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Request(Endpoint endpoint, long due, Stats stats) {
+            this.endpoint = endpoint;
+            this.due = due;
+            this.stats = stats;
+        }
+
+        @Override
+        public void run() {
+            sending.add(this);
+            boolean ok;
+            try {
+                ok = send(endpoint);
+            } catch (IOException | RuntimeException e) {
+                // no issues to pick from yet, for one
+                ok = false;
+            }
+            record(ok, false);
+            sending.remove(this);
+        }
+
+        void record(boolean ok, boolean dropped) {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            stats.latencies.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due)));
+            if (!ok) {
+                stats.errors.increment();
+            }
+            if (dropped) {
+                stats.dropped.increment();
+            }
+        }
+    }
+
+    // requests per second, at least a microsecond apart
+    public static final double MAX_RATE = 1000000;
+
+    private static final String[] OPERATORS = { "ADD", "SUBTRACT", "MULTIPLY", "DIVIDE" };
+    private static final String[] TYPES = { "DEFECT", "ENHANCEMENT" };
+    private static final String[] PRIORITIES = { "LOW", "MEDIUM", "HIGH" };
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String base;
+    private final double rate;
+    private final long durationNanos;
+    private final int threads;
+    private final Endpoint[] mix;
+
+    private final List<Long> userIds = new CopyOnWriteArrayList<>();
+    private final List<Long> issueIds = new CopyOnWriteArrayList<>();
+    private final Set<Request> sending = ConcurrentHashMap.newKeySet();
+
+    // weights by endpoint, leaving out an endpoint leaves it alone
+    public LoadDriver(String base, double rate, long durationSeconds, int threads, Map<Endpoint, Integer> weights) {
+        this.base = base.endsWith("/") ? base.substring(0, base.length() - 1) : base;
+        this.rate = rate;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.threads = threads;
+        List<Endpoint> mix = new ArrayList<>();
+        weights.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; ++i) {
+                mix.add(endpoint);
+            }
+        });
+        this.mix = mix.toArray(new Endpoint[0]);
+    }
+
+    public Report run() throws Exc {
+        if (mix.length == 0) {
+            throw new Exc(null, "nothing to send");
+        }
+        if (!(rate > 0 && rate <= MAX_RATE)) {
+            throw new Exc(null, "rate not in (0, %.0f]: %s", MAX_RATE, rate);
+        }
+        for (JsonNode user : get("/user/?size=1000")) {
+            userIds.add(user.get("id").asLong());
+        }
+        if (userIds.isEmpty()) {
+            throw new Exc(null, "no users at %s", base);
+        }
+        for (JsonNode issue : get("/issue/?size=1000")) {
+            issueIds.add(issue.get("id").asLong());
+        }
+
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : mix) {
+            stats.put(endpoint, new Stats());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "load-driver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        try {
+            for (long due = start; due - start < durationNanos; due += intervalNanos) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long dueAt = due;
+                Endpoint endpoint = mix[ThreadLocalRandom.current().nextInt(mix.length)];
+                executor.execute(new Request(endpoint, dueAt, stats.get(endpoint)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Exc(e, "interrupted");
+        }
+        // never sent, and unanswered (interrupted, if they can be)
+        List<Runnable> unsent = executor.shutdownNow();
+        for (Runnable request : unsent) {
+            ((Request) request).record(false, true);
+        }
+        for (Request request : sending) {
+            request.record(false, true);
+        }
+        return new Report(stats, (System.nanoTime() - start) / 1e9);
+    }
+
+    private boolean send(Endpoint endpoint) throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (endpoint) {
+            case CALCULATE: {
+                ObjectNode request = objectMapper.createObjectNode();
+                request.put("operator", pick(random, OPERATORS));
+                request.putArray("operands")
+                        .add(String.valueOf(random.nextInt(1000)))
+                        .add(String.valueOf(random.nextInt(1, 100)));
+                return exchange("POST", "/calculator/", request) == HttpURLConnection.HTTP_OK;
+            }
+            case GET:
+                return exchange("GET", "/issue/" + pick(random, issueIds), null) == HttpURLConnection.HTTP_OK;
+            case CREATE: {
+                HttpURLConnection connection = open("POST", "/issue/", issue(random));
+                try {
+                    if (connection.getResponseCode() != HttpURLConnection.HTTP_CREATED) {
+                        drain(connection);
+                        return false;
+                    }
+                    try (InputStream body = connection.getInputStream()) {
+                        issueIds.add(objectMapper.readTree(body).get("id").asLong());
+                    }
+                    return true;
+                } finally {
+                    connection.disconnect();
+                }
+            }
+            case UPDATE:
+                return exchange("PUT", "/issue/" + pick(random, issueIds), issue(random)) == HttpURLConnection.HTTP_OK;
+            case LIST:
+                return exchange("GET", "/issue/?size=50&sort=" + (random.nextBoolean() ? "priority" : "type"), null)
+                        == HttpURLConnection.HTTP_OK;
+            case EXPORT:
+                return exchange("GET", "/exportissues/user/" + pick(random, userIds), null) == HttpURLConnection.HTTP_OK;
+            default:
+                throw new IllegalArgumentException(endpoint.name());
+        }
+    }
+
+    private ObjectNode issue(ThreadLocalRandom random) {
+        ObjectNode issue = objectMapper.createObjectNode();
+        issue.put("summary", "Load driven issue " + random.nextInt(1000000));
+        issue.put("type", pick(random, TYPES));
+        issue.put("priority", pick(random, PRIORITIES));
+        issue.put("description", "Sent by the **load driver**.");
+        issue.putObject("creator").put("id", pick(random, userIds));
+        return issue;
+    }
+
+    // the status code, the body read (and ignored), so the connection can be kept alive
+    private int exchange(String method, String path, JsonNode body) throws IOException {
+        HttpURLConnection connection = open(method, path, body);
+        try {
+            int status = connection.getResponseCode();
+            drain(connection);
+            return status;
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private JsonNode get(String path) throws Exc {
+        try {
+            HttpURLConnection connection = open("GET", path, null);
+            if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                throw new Exc(null, "GET %s%s: %d", base, path, connection.getResponseCode());
+            }
+            try (InputStream body = connection.getInputStream()) {
+                return objectMapper.readTree(body);
+            }
+        } catch (IOException e) {
+            throw new Exc(e, "GET %s%s failed", base, path);
+        }
+    }
+
+    private HttpURLConnection open(String method, String path, JsonNode body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(base + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json, text/html");
+        connection.setConnectTimeout(10000);
+        connection.setReadTimeout(60000);
+        if (Objects.nonNull(body)) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(objectMapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+
+    private static void drain(HttpURLConnection connection) throws IOException {
+        InputStream body = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        if (Objects.isNull(body)) {
+            return;
+        }
+        try (InputStream in = body) {
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) >= 0) {
+                // just reading
+            }
+        }
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static <T> T pick(ThreadLocalRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    // "calculate=4,get=4,..." by Endpoint keys
+    public static Map<Endpoint, Integer> parseMix(String mix) throws Exc {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String weight : mix.split(",")) {
+            String[] keyValue = weight.trim().split("=");
+            try {
+                weights.put(Endpoint.parse(keyValue[0].trim()), keyValue.length > 1 ? Integer.parseInt(keyValue[1].trim()) : 1);
+            } catch (NumberFormatException e) {
+                throw new Exc(e, "invalid weight: %s", weight);
+            }
+        }
+        return weights;
+    }
+
+    // base URL, requests per second, seconds, threads, mix
+    public static void main(String[] args) throws Exc {
+        LoadDriver loadDriver = new LoadDriver(
+                args.length > 0 ? args[0] : "http://localhost:8080",
+                args.length > 1 ? Double.parseDouble(args[1]) : 100,
+                args.length > 2 ? Long.parseLong(args[2]) : 60,
+                args.length > 3 ? Integer.parseInt(args[3]) : 64,
+                parseMix(args.length > 4 ? args[4] : "calculate=4,get=4,create=1,update=1,list=2,export=1"));
+        System.out.print(loadDriver.run());
+    }
+}
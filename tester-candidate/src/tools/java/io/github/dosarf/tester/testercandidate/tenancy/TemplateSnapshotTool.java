@@ -0,0 +1,25 @@
+package io.github.dosarf.tester.testercandidate.tenancy;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+// ./gradlew templateSnapshot, see build.gradle and TenantTemplates: the template of tenant
+// databases, a snapshot of a database, with the service down
+public class TemplateSnapshotTool {
+
+    // JDBC URL, template file, user, password
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("usage: TemplateSnapshotTool <JDBC URL> <template file> [<user> [<password>]]");
+            System.exit(1);
+        }
+        String username = args.length > 2 ? args[2] : "sa";
+        String password = args.length > 3 ? args[3] : "";
+        Path template = TenantTemplates.path(args[1]);
+        try (Connection connection = DriverManager.getConnection(args[0] + ";IFEXISTS=TRUE", username, password)) {
+            long size = TenantTemplates.snapshot(connection, template, username, password);
+            System.out.printf("%s: %d bytes%n", template, size);
+        }
+    }
+}